@@ -0,0 +1,91 @@
+package com.example.payroll;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Compares a JMH JSON result file with one from another commit, run by the benchmark profile
+ * after the benchmarks when {@code -Djmh.baseline=<file>} is given. A benchmark counts as a
+ * regression when it is more than {@code jmh.threshold} percent worse and the difference is
+ * larger than both runs' error margins together; {@code -Djmh.failOnRegression=true} then fails
+ * the build.
+ */
+public final class BenchmarkComparison {
+
+    private record Result(String mode, double score, double error, String unit) {
+
+        // Throughput improves upwards, every time-based mode downwards
+        double changePercent(Result baseline) {
+            double change = (score - baseline.score) / baseline.score * 100;
+            return "thrpt".equals(mode) ? -change : change;
+        }
+
+        boolean regressedFrom(Result baseline, double thresholdPercent) {
+            return changePercent(baseline) > thresholdPercent
+                    && Math.abs(score - baseline.score) > error + baseline.error;
+        }
+    }
+
+    private BenchmarkComparison() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2 || args[1].isBlank()) {
+            System.out.println("Results written to " + args[0] + "; pass -Djmh.baseline=<file> to compare.");
+            return;
+        }
+        double threshold = Double.parseDouble(System.getProperty("jmh.threshold", "10"));
+        boolean failOnRegression = Boolean.getBoolean("jmh.failOnRegression");
+
+        Map<String, Result> current = read(new File(args[0]));
+        Map<String, Result> baseline = read(new File(args[1]));
+
+        int regressions = 0;
+        System.out.printf("%n%-70s %14s %14s %9s%n", "benchmark", "baseline", "current", "worse by");
+        for (Map.Entry<String, Result> entry : new TreeMap<>(current).entrySet()) {
+            Result now = entry.getValue();
+            Result before = baseline.get(entry.getKey());
+            if (before == null) {
+                System.out.printf("%-70s %14s %14s %9s%n", entry.getKey(), "-", format(now), "new");
+                continue;
+            }
+            boolean regressed = now.regressedFrom(before, threshold);
+            if (regressed) {
+                regressions++;
+            }
+            System.out.printf("%-70s %14s %14s %8.1f%%%s%n", entry.getKey(), format(before), format(now),
+                    now.changePercent(before), regressed ? "  REGRESSION" : "");
+        }
+        System.out.printf("%d regression(s) over %.0f%% against %s%n", regressions, threshold, args[1]);
+        if (regressions > 0 && failOnRegression) {
+            System.exit(1);
+        }
+    }
+
+    private static Map<String, Result> read(File file) throws IOException {
+        Map<String, Result> results = new LinkedHashMap<>();
+        for (JsonNode run : new ObjectMapper().readTree(file)) {
+            StringBuilder key = new StringBuilder(run.get("benchmark").asText().replace("com.example.payroll.", ""));
+            JsonNode params = run.get("params");
+            if (params != null) {
+                params.fields().forEachRemaining(param ->
+                        key.append(' ').append(param.getKey()).append('=').append(param.getValue().asText()));
+            }
+            JsonNode metric = run.get("primaryMetric");
+            double error = metric.get("scoreError").asDouble();
+            results.put(key.toString(), new Result(run.get("mode").asText(), metric.get("score").asDouble(),
+                    Double.isNaN(error) ? 0 : error, metric.get("scoreUnit").asText()));
+        }
+        return results;
+    }
+
+    private static String format(Result result) {
+        return String.format("%.3f %s", result.score(), result.unit());
+    }
+}
@@ -0,0 +1,72 @@
+package com.example.payroll.departmentService;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.hateoas.CollectionModel;
+import org.springframework.hateoas.EntityModel;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+/**
+ * Cost of the HAL models for GET /departments/{id} and GET /departments. Thread-scoped
+ * because link building reads the request from a thread local.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Thread)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class DepartmentAssemblerBenchmark {
+
+    @Param("100")
+    private int size;
+
+    private DepartmentModelAssembler assembler;
+    private List<Department> departments;
+
+    @Setup
+    public void setUp() {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/departments");
+        request.setServerName("payroll.example.com");
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(request));
+
+        assembler = new DepartmentModelAssembler();
+        departments = new ArrayList<>(size);
+        for (long id = 1; id <= size; id++) {
+            Department department = new Department("Department " + id, "Floor " + id);
+            department.setId(id);
+            departments.add(department);
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        RequestContextHolder.resetRequestAttributes();
+    }
+
+    @Benchmark
+    public EntityModel<Department> one() {
+        return assembler.toModel(departments.get(0));
+    }
+
+    @Benchmark
+    public CollectionModel<EntityModel<Department>> all() {
+        return assembler.toCollectionModel(departments);
+    }
+}
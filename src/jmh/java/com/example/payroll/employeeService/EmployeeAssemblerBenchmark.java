@@ -0,0 +1,86 @@
+package com.example.payroll.employeeService;
+
+import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.linkTo;
+import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.methodOn;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.hateoas.CollectionModel;
+import org.springframework.hateoas.EntityModel;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+/**
+ * Cost of turning a page of employees into HAL models. The per-element variant is the old
+ * assembler, which invoked a controller proxy and read the request for both links of every
+ * element. {@code single} is the model for GET /employees/{id}. Thread-scoped because link
+ * building reads the request from a thread local.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Thread)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class EmployeeAssemblerBenchmark {
+
+    @Param("10000")
+    private int size;
+
+    private EmployeeModelAssembler assembler;
+    private List<EmployeeDTO> employees;
+
+    @Setup
+    public void setUp() {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/employees");
+        request.setServerName("payroll.example.com");
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(request));
+
+        assembler = new EmployeeModelAssembler();
+        employees = new ArrayList<>(size);
+        for (long id = 1; id <= size; id++) {
+            employees.add(new EmployeeDTO(id, "Employee " + id, "clerk", "employee" + id + "@example.com", "IT"));
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        RequestContextHolder.resetRequestAttributes();
+    }
+
+    @Benchmark
+    public List<EntityModel<EmployeeDTO>> linksPerElement() {
+        List<EntityModel<EmployeeDTO>> models = new ArrayList<>(employees.size());
+        for (EmployeeDTO employee : employees) {
+            models.add(EntityModel.of(employee,
+                    linkTo(methodOn(EmployeeController.class).one(employee.getId(), null)).withSelfRel(),
+                    linkTo(methodOn(EmployeeController.class).all(null, null, null)).withRel("employees")));
+        }
+        return models;
+    }
+
+    @Benchmark
+    public CollectionModel<EntityModel<EmployeeDTO>> linksPerCollection() {
+        return assembler.toCollectionModel(employees);
+    }
+
+    @Benchmark
+    public EntityModel<EmployeeDTO> single() {
+        return assembler.toModel(employees.get(0));
+    }
+}
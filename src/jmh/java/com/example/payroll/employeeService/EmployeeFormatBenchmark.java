@@ -0,0 +1,117 @@
+package com.example.payroll.employeeService;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPOutputStream;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.hateoas.CollectionModel;
+import org.springframework.hateoas.EntityModel;
+import org.springframework.hateoas.mediatype.MessageResolver;
+import org.springframework.hateoas.mediatype.hal.CurieProvider;
+import org.springframework.hateoas.mediatype.hal.Jackson2HalModule;
+import org.springframework.hateoas.server.core.DefaultLinkRelationProvider;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.smile.databind.SmileMapper;
+
+/**
+ * Encode time for one page of employees as HAL+JSON (what GET /employees serves by default),
+ * as the link-free page in plain JSON, and as the same page in Smile. The trial setup prints
+ * the encoded and gzipped sizes of each, since the time alone does not show the bytes saved.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Thread)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class EmployeeFormatBenchmark {
+
+    @Param({ "100", "1000" })
+    private int size;
+
+    private ObjectMapper halMapper;
+    private ObjectMapper jsonMapper;
+    private ObjectMapper smileMapper;
+    private CollectionModel<EntityModel<EmployeeDTO>> halPage;
+    private EmployeePage page;
+
+    @Setup
+    public void setUp() throws IOException {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/employees");
+        request.setServerName("payroll.example.com");
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(request));
+
+        halMapper = new ObjectMapper().registerModule(new Jackson2HalModule());
+        halMapper.setHandlerInstantiator(new Jackson2HalModule.HalHandlerInstantiator(
+                        new DefaultLinkRelationProvider(), CurieProvider.NONE, MessageResolver.DEFAULTS_ONLY));
+        jsonMapper = new ObjectMapper();
+        smileMapper = new SmileMapper();
+
+        List<EmployeeDTO> employees = new ArrayList<>(size);
+        for (long id = 1; id <= size; id++) {
+            employees.add(new EmployeeDTO(id, "Employee " + id, "clerk", "employee" + id + "@example.com",
+                    id % 2 == 0 ? "IT" : "HR"));
+        }
+        halPage = new EmployeeModelAssembler().toCollectionModel(employees);
+        page = new EmployeePage(employees, (long) size);
+
+        System.out.printf("%n%-10s %10s %10s (%d employees)%n", "format", "bytes", "gzipped", size);
+        report("hal+json", halJson());
+        report("json", json());
+        report("smile", smile());
+    }
+
+    @TearDown
+    public void tearDown() {
+        RequestContextHolder.resetRequestAttributes();
+    }
+
+    @Benchmark
+    public byte[] halJson() throws IOException {
+        return halMapper.writeValueAsBytes(halPage);
+    }
+
+    @Benchmark
+    public byte[] json() throws IOException {
+        return jsonMapper.writeValueAsBytes(page);
+    }
+
+    @Benchmark
+    public byte[] smile() throws IOException {
+        return smileMapper.writeValueAsBytes(page);
+    }
+
+    private static void report(String format, byte[] encoded) {
+        System.out.printf("%-10s %10d %10d%n", format, encoded.length, gzip(encoded).length);
+    }
+
+    private static byte[] gzip(byte[] bytes) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+            gzip.write(bytes);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return out.toByteArray();
+    }
+}
@@ -0,0 +1,64 @@
+package com.example.payroll.employeeService;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.example.payroll.departmentService.Department;
+
+/**
+ * Entity-to-DTO mapping on the single-employee read and write paths, for one employee and
+ * for a page, with the department already loaded.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class EmployeeMapperBenchmark {
+
+    @Param("100")
+    private int size;
+
+    private List<Employee> employees;
+
+    @Setup
+    public void setUp() {
+        Department department = new Department("IT", "Shire");
+        department.setId(1L);
+        employees = new ArrayList<>(size);
+        for (long id = 1; id <= size; id++) {
+            Employee employee = new Employee("Employee " + id, "clerk", "employee" + id + "@example.com");
+            employee.setId(id);
+            employee.setDepartment(department);
+            employees.add(employee);
+        }
+    }
+
+    @Benchmark
+    public EmployeeDTO toDTO() {
+        return EmployeeMapper.toDTO(employees.get(0));
+    }
+
+    @Benchmark
+    public List<EmployeeDTO> toDTOPage() {
+        List<EmployeeDTO> page = new ArrayList<>(employees.size());
+        for (Employee employee : employees) {
+            page.add(EmployeeMapper.toDTO(employee));
+        }
+        return page;
+    }
+}
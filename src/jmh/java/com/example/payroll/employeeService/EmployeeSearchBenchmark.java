@@ -0,0 +1,111 @@
+package com.example.payroll.employeeService;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.example.payroll.PayrollApplication;
+
+/**
+ * Search latency over a million employees in the application's H2 database. Rows are
+ * generated in SQL: names like "Ab Person1000042", so a two-letter prefix matches about
+ * 1,500 rows; eight roles; the two seeded departments. {@code scanWithoutIndex} is the same
+ * first page as {@code namePrefix} written against the raw column, which is what
+ * {@code lower(name) like ?} costs without the search columns.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+@Fork(value = 1, jvmArgsAppend = "-Xmx3g")
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class EmployeeSearchBenchmark {
+
+    private static final int ROWS = 1_000_000;
+    private static final int FIRST_ID = 1_000_001;
+    private static final int PAGE = 20;
+
+    private ConfigurableApplicationContext context;
+    private EmployeeSearch search;
+    private JdbcTemplate jdbc;
+    private String tenthPageCursor;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = SpringApplication.run(PayrollApplication.class,
+                "--server.port=0",
+                "--spring.main.banner-mode=off",
+                "--logging.level.root=WARN",
+                "--spring.jpa.show-sql=false");
+        search = context.getBean(EmployeeSearch.class);
+        jdbc = context.getBean(JdbcTemplate.class);
+
+        int last = FIRST_ID + ROWS - 1;
+        jdbc.update("insert into users (id, username, password, role) "
+                + "select x, 'user' || x || '@example.com', 'unused', 'ROLE_USER' from system_range(?, ?)", FIRST_ID, last);
+        jdbc.update("insert into employee (id, name, role, email, department_id, user_id, version, "
+                + "name_lower, email_lower, role_lower) "
+                + "select x, n, 'Role' || mod(x, 8), e, 1 + mod(x, 2), x, 0, lower(n), lower(e), 'role' || mod(x, 8) "
+                + "from (select x, char(65 + mod(x, 26)) || char(97 + mod(x / 26, 26)) || ' Person' || x as n, "
+                + "'user' || x || '@example.com' as e from system_range(?, ?))", FIRST_ID, last);
+        jdbc.execute("analyze");
+
+        EmployeeSearchQuery byName = new EmployeeSearchQuery("ab", null, null, null);
+        String cursor = null;
+        for (int page = 0; page < 10; page++) {
+            cursor = search.search(byName, cursor, PAGE).next();
+        }
+        tenthPageCursor = cursor;
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public List<EmployeeDTO> namePrefix() {
+        return search.search(new EmployeeSearchQuery("ab", null, null, null), null, PAGE).employees();
+    }
+
+    @Benchmark
+    public List<EmployeeDTO> namePrefixTenthPage() {
+        return search.search(new EmployeeSearchQuery("ab", null, null, null), tenthPageCursor, PAGE).employees();
+    }
+
+    @Benchmark
+    public List<EmployeeDTO> emailPrefix() {
+        return search.search(new EmployeeSearchQuery(null, "USER1500000@", null, null), null, PAGE).employees();
+    }
+
+    @Benchmark
+    public List<EmployeeDTO> roleInDepartment() {
+        return search.search(new EmployeeSearchQuery(null, null, "role3", "hr"), null, PAGE).employees();
+    }
+
+    @Benchmark
+    public List<EmployeeDTO> departmentOnly() {
+        return search.search(new EmployeeSearchQuery(null, null, null, "it"), null, PAGE).employees();
+    }
+
+    @Benchmark
+    public List<Long> scanWithoutIndex() {
+        return jdbc.queryForList("select id from employee where lower(name) like 'ab%' order by id limit " + PAGE,
+                Long.class);
+    }
+}
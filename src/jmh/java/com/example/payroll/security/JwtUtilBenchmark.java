@@ -0,0 +1,92 @@
+package com.example.payroll.security;
+
+import java.util.Collections;
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.userdetails.UserDetails;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+
+/**
+ * Per-request cost of authenticating a bearer token: the old filter path parsed and verified
+ * the token three times, the new one verifies it once and then serves repeat bearers from cache.
+ * Also the pieces on their own: signing a token at login, the claim checks once the signature is
+ * verified, and building the principal from the claims.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class JwtUtilBenchmark {
+
+    private static final String SECRET_KEY = "5dab7a23fbbd1f3eccb5ef839ac89af5fb6f0f0f5cc832209d8d459b15e4e4d5";
+
+    private JwtUtil jwtUtil;
+    private UserDetails userDetails;
+    private String token;
+    private AuthenticatedUser principal;
+    private Claims claims;
+
+    @Setup
+    public void setUp() {
+        jwtUtil = new JwtUtil(10_000);
+        userDetails = new org.springframework.security.core.userdetails.User("Bilbo@gmail.com", "",
+                Collections.singletonList(new SimpleGrantedAuthority("ROLE_ADMIN")));
+        token = jwtUtil.generateToken(userDetails);
+        principal = new AuthenticatedUser(1L, "Bilbo@gmail.com", "ROLE_ADMIN");
+        claims = jwtUtil.verifyClaims(jwtUtil.generateToken(principal));
+    }
+
+    @Benchmark
+    public String generate() {
+        return jwtUtil.generateToken(principal);
+    }
+
+    @Benchmark
+    public boolean validate() {
+        return jwtUtil.validateToken(claims, principal);
+    }
+
+    @Benchmark
+    public AuthenticatedUser extractPrincipal() {
+        return jwtUtil.extractPrincipal(claims);
+    }
+
+    @Benchmark
+    public boolean legacyThreeParses() {
+        String username = legacyClaims().getSubject();
+        return username.equals(userDetails.getUsername())
+                && legacyClaims().getSubject().equals(userDetails.getUsername())
+                && !legacyClaims().getExpiration().before(new Date());
+    }
+
+    @Benchmark
+    public boolean singleParse() {
+        return jwtUtil.validateToken(jwtUtil.verifyClaims(token), userDetails);
+    }
+
+    @Benchmark
+    public boolean cachedParse() {
+        return jwtUtil.validateToken(jwtUtil.parseClaims(token), userDetails);
+    }
+
+    @SuppressWarnings("deprecation")
+    private Claims legacyClaims() {
+        return Jwts.parser().setSigningKey(SECRET_KEY).parseClaimsJws(token).getBody();
+    }
+}
@@ -0,0 +1,108 @@
+package com.example.payroll.security;
+
+import java.util.concurrent.TimeUnit;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.security.authentication.AuthenticationManager;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+
+import com.example.payroll.PayrollApplication;
+
+import jakarta.persistence.EntityManagerFactory;
+
+/**
+ * Latency and JDBC statements per login against the seeded application context. The legacy
+ * path is the old controller flow: look the user up, authenticate through the
+ * DaoAuthenticationProvider (which loads the user again), load the user by id for the refresh
+ * token. Both paths pay one BCrypt verification.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class LoginBenchmark {
+
+    private static final String USERNAME = "Bilbo@gmail.com";
+    private static final String PASSWORD = "bilbo";
+
+    private ConfigurableApplicationContext context;
+    private LoginService loginService;
+    private UserRepository userRepository;
+    private AuthenticationManager authenticationManager;
+    private JwtUtil jwtUtil;
+    private RefreshTokenService refreshTokenService;
+    private Statistics statistics;
+
+    // Totals per iteration; statements / logins is the per-login statement count
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    @State(Scope.Thread)
+    public static class Statements {
+        public long statements;
+        public long logins;
+
+        void record(long count) {
+            statements += count;
+            logins++;
+        }
+    }
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = SpringApplication.run(PayrollApplication.class,
+                "--server.port=0",
+                "--spring.main.banner-mode=off",
+                "--logging.level.root=WARN",
+                "--spring.jpa.show-sql=false",
+                "--spring.jpa.properties.hibernate.generate_statistics=true",
+                "--security.login.throttle.ip.capacity=1000000");
+        loginService = context.getBean(LoginService.class);
+        userRepository = context.getBean(UserRepository.class);
+        authenticationManager = context.getBean(AuthenticationManager.class);
+        jwtUtil = context.getBean(JwtUtil.class);
+        refreshTokenService = context.getBean(RefreshTokenService.class);
+        statistics = context.getBean(EntityManagerFactory.class).unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public AuthenticationResponse legacyLogin(Statements counter) {
+        long before = statistics.getPrepareStatementCount();
+        User user = userRepository.findByUsername(USERNAME).orElseThrow();
+        authenticationManager.authenticate(new UsernamePasswordAuthenticationToken(user.getUsername(), PASSWORD));
+        AuthenticatedUser principal = AuthenticatedUser.from(userRepository.findById(user.getId()).orElseThrow());
+        AuthenticationResponse response = new AuthenticationResponse(jwtUtil.generateToken(principal),
+                refreshTokenService.createRefreshToken(principal).getToken());
+        counter.record(statistics.getPrepareStatementCount() - before);
+        return response;
+    }
+
+    @Benchmark
+    public AuthenticationResponse loginService(Statements counter) {
+        long before = statistics.getPrepareStatementCount();
+        AuthenticationResponse response = loginService.login(USERNAME, PASSWORD, "127.0.0.1");
+        counter.record(statistics.getPrepareStatementCount() - before);
+        return response;
+    }
+}
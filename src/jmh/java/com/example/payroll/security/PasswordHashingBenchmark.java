@@ -0,0 +1,108 @@
+package com.example.payroll.security;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+/**
+ * User-creation throughput at 1, 8 and 32 concurrent creations, hashing either on the calling
+ * (request) thread or on the core-sized hashing pool, plus a 32-user bulk creation done
+ * serially versus fanned out across the pool.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 3, time = 3)
+public class PasswordHashingBenchmark {
+
+    private static final List<String> BULK = Collections.nCopies(32, "s3cret-password");
+
+    private PasswordEncoder passwordEncoder;
+    private PasswordHashingService hashingService;
+
+    @Setup
+    public void setUp() {
+        passwordEncoder = new BCryptPasswordEncoder();
+        hashingService = new PasswordHashingService(passwordEncoder, 0);
+    }
+
+    @TearDown
+    public void tearDown() {
+        hashingService.shutdown();
+    }
+
+    @Benchmark
+    @Threads(1)
+    public String requestThread1() {
+        return passwordEncoder.encode("s3cret-password");
+    }
+
+    @Benchmark
+    @Threads(8)
+    public String requestThread8() {
+        return passwordEncoder.encode("s3cret-password");
+    }
+
+    @Benchmark
+    @Threads(32)
+    public String requestThread32() {
+        return passwordEncoder.encode("s3cret-password");
+    }
+
+    @Benchmark
+    @Threads(1)
+    public String hashingPool1() {
+        return hashingService.encode("s3cret-password").join();
+    }
+
+    @Benchmark
+    @Threads(8)
+    public String hashingPool8() {
+        return hashingService.encode("s3cret-password").join();
+    }
+
+    @Benchmark
+    @Threads(32)
+    public String hashingPool32() {
+        return hashingService.encode("s3cret-password").join();
+    }
+
+    @Benchmark
+    @Threads(1)
+    @OutputTimeUnit(TimeUnit.MINUTES)
+    public int bulk32Serial() {
+        int length = 0;
+        for (String password : BULK) {
+            length += passwordEncoder.encode(password).length();
+        }
+        return length;
+    }
+
+    @Benchmark
+    @Threads(1)
+    @OutputTimeUnit(TimeUnit.MINUTES)
+    public int bulk32FanOut() {
+        int length = 0;
+        for (String hash : hashingService.encodeAll(BULK)) {
+            length += hash.length();
+        }
+        return length;
+    }
+}
@@ -0,0 +1,80 @@
+package com.example.payroll;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+/**
+ * Latencies and response statuses of one endpoint over the measured phase. Latency is recorded
+ * in microseconds for every completed exchange, failed ones included, so an endpoint that
+ * answers 429 quickly shows up in its error count rather than as a fast endpoint.
+ */
+final class EndpointStats {
+
+    private final String name;
+    private final Histogram latencies = new ConcurrentHistogram(3);
+    private final Map<String, LongAdder> statuses = new ConcurrentHashMap<>();
+    private final LongAdder errors = new LongAdder();
+
+    EndpointStats(String name) {
+        this.name = name;
+    }
+
+    String name() {
+        return name;
+    }
+
+    void record(long micros, int status) {
+        latencies.recordValue(micros);
+        statuses.computeIfAbsent(String.valueOf(status), key -> new LongAdder()).increment();
+        if (status >= 400) {
+            errors.increment();
+        }
+    }
+
+    void recordFailure(long micros, Exception failure) {
+        latencies.recordValue(micros);
+        statuses.computeIfAbsent(failure.getClass().getSimpleName(), key -> new LongAdder()).increment();
+        errors.increment();
+    }
+
+    static String header() {
+        return String.format("%-26s %9s %7s %9s %8s %8s %8s %8s %8s", "endpoint", "requests", "errors", "req/s",
+                "p50 ms", "p90 ms", "p99 ms", "p99.9 ms", "max ms");
+    }
+
+    String row(double seconds) {
+        return String.format("%-26s %9d %7d %9.1f %8.2f %8.2f %8.2f %8.2f %8.2f", name,
+                latencies.getTotalCount(), errors.sum(), latencies.getTotalCount() / seconds,
+                percentile(50), percentile(90), percentile(99), percentile(99.9), latencies.getMaxValue() / 1000.0);
+    }
+
+    void writeTo(ObjectNode node, double seconds) {
+        node.put("endpoint", name);
+        node.put("requests", latencies.getTotalCount());
+        node.put("errors", errors.sum());
+        node.put("throughput", latencies.getTotalCount() / seconds);
+        node.put("meanMs", latencies.getMean() / 1000.0);
+        node.put("p50Ms", percentile(50));
+        node.put("p90Ms", percentile(90));
+        node.put("p99Ms", percentile(99));
+        node.put("p999Ms", percentile(99.9));
+        node.put("maxMs", latencies.getMaxValue() / 1000.0);
+        ObjectNode byStatus = node.putObject("statuses");
+        new TreeMap<>(statuses).forEach((status, count) -> byStatus.put(status, count.sum()));
+    }
+
+    long requests() {
+        return latencies.getTotalCount();
+    }
+
+    private double percentile(double percentile) {
+        return latencies.getValueAtPercentile(percentile) / 1000.0;
+    }
+}
@@ -0,0 +1,350 @@
+package com.example.payroll;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.boot.SpringApplication;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.icegreen.greenmail.util.GreenMail;
+import com.icegreen.greenmail.util.ServerSetupTest;
+
+import jakarta.persistence.EntityManagerFactory;
+
+/**
+ * End-to-end load test, run by the loadtest profile. Boots the application on a random port
+ * against its in-memory H2 database and a GreenMail SMTP server on loopback, seeds
+ * {@code loadtest.employees} employees (each with its own ROLE_USER login) and
+ * {@code loadtest.departments} departments in SQL, then has {@code loadtest.concurrency}
+ * clients drive the {@link Operation} mix for {@code loadtest.warmup} plus
+ * {@code loadtest.duration}. Only the second phase is reported, per endpoint, on the console and
+ * as JSON in the file given as the first argument.
+ * <p>
+ * Each client waits for its response before sending the next request, so latencies are what
+ * that many concurrent users see; raise the concurrency until throughput stops growing to find
+ * a node's capacity. BCrypt is calibrated as in production unless
+ * {@code loadtest.bcrypt.strength} fixes it.
+ */
+public final class LoadTest {
+
+    private static final long FIRST_ID = 10_000_001;
+    private static final String PASSWORD = "load-test-password";
+    private static final int PAGE = 100;
+
+    /** The request mix; weights are relative. */
+    enum Operation {
+        LOGIN("POST /auth/login", 10),
+        REFRESH("POST /auth/refresh-token", 5),
+        GET_EMPLOYEE("GET /employees/{id}", 35),
+        LIST_EMPLOYEES("GET /employees", 20),
+        UPDATE_EMPLOYEE("PUT /employees/{id}", 10),
+        LIST_DEPARTMENTS("GET /departments", 10),
+        GET_DEPARTMENT("GET /departments/{id}", 5),
+        REGISTER("POST /auth/register", 5);
+
+        private final String endpoint;
+        private final int weight;
+
+        Operation(String endpoint, int weight) {
+            this.endpoint = endpoint;
+            this.weight = weight;
+        }
+
+        private static final int TOTAL_WEIGHT = Arrays.stream(values()).mapToInt(op -> op.weight).sum();
+
+        static Operation pick() {
+            int roll = ThreadLocalRandom.current().nextInt(TOTAL_WEIGHT);
+            for (Operation operation : values()) {
+                roll -= operation.weight;
+                if (roll < 0) {
+                    return operation;
+                }
+            }
+            throw new IllegalStateException();
+        }
+    }
+
+    private final int employees = Integer.getInteger("loadtest.employees", 100_000);
+    private final int departments = Integer.getInteger("loadtest.departments", 50);
+    private final int concurrency = Integer.getInteger("loadtest.concurrency", 32);
+    private final Duration warmup = Duration.parse(System.getProperty("loadtest.warmup", "PT30S"));
+    private final Duration duration = Duration.parse(System.getProperty("loadtest.duration", "PT60S"));
+    private final int bcryptStrength = Integer.getInteger("loadtest.bcrypt.strength", 0);
+
+    private final ObjectMapper mapper = new ObjectMapper();
+    private final Map<Operation, EndpointStats> stats = new EnumMap<>(Operation.class);
+    private final AtomicLong registrations = new AtomicLong();
+    private HttpClient client;
+    private String baseUrl;
+    private volatile boolean running = true;
+    private volatile boolean measuring;
+
+    private LoadTest() {
+        for (Operation operation : Operation.values()) {
+            stats.put(operation, new EndpointStats(operation.endpoint));
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        new LoadTest().run(new File(args.length > 0 ? args[0] : "target/loadtest-result.json"));
+        // The mail and hashing pools are not all daemon threads
+        System.exit(0);
+    }
+
+    private void run(File resultFile) throws Exception {
+        if (employees < concurrency) {
+            throw new IllegalArgumentException("loadtest.employees must be at least loadtest.concurrency");
+        }
+        GreenMail smtp = new GreenMail(ServerSetupTest.SMTP.dynamicPort());
+        smtp.start();
+        ConfigurableApplicationContext context = SpringApplication.run(PayrollApplication.class,
+                "--server.port=0",
+                "--server.address=127.0.0.1",
+                "--spring.main.banner-mode=off",
+                "--logging.level.root=WARN",
+                "--spring.mail.host=127.0.0.1",
+                "--spring.mail.port=" + smtp.getSmtp().getPort(),
+                "--spring.mail.username=",
+                "--spring.mail.password=",
+                "--spring.mail.properties.mail.smtp.auth=false",
+                "--spring.mail.properties.mail.smtp.starttls.enable=false",
+                // Every client connects from 127.0.0.1
+                "--security.login.throttle.ip.capacity=" + Integer.MAX_VALUE,
+                "--security.password.bcrypt.strength=" + bcryptStrength);
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            seed(context);
+            baseUrl = "http://127.0.0.1:" + context.getEnvironment().getProperty("local.server.port");
+            client = HttpClient.newBuilder()
+                    .version(HttpClient.Version.HTTP_1_1)
+                    .connectTimeout(Duration.ofSeconds(5))
+                    .build();
+
+            System.out.printf("Running %d clients: %s warmup, %s measured%n", concurrency, warmup, duration);
+            List<Future<?>> clients = new ArrayList<>();
+            for (int i = 0; i < concurrency; i++) {
+                Client worker = new Client(FIRST_ID + i);
+                clients.add(executor.submit(() -> {
+                    worker.run();
+                    return null;
+                }));
+            }
+            Thread.sleep(warmup.toMillis());
+            measuring = true;
+            long start = System.nanoTime();
+            Thread.sleep(duration.toMillis());
+            measuring = false;
+            double seconds = (System.nanoTime() - start) / 1e9;
+            running = false;
+            for (Future<?> worker : clients) {
+                worker.get();
+            }
+            report(seconds, smtp.getReceivedMessages().length, resultFile);
+        } finally {
+            context.close();
+            smtp.stop();
+        }
+    }
+
+    /**
+     * Inserts users, departments and employees set-based in SQL, ids above the sequences'
+     * range. Every user gets the same password hash, made once with the application's encoder.
+     */
+    private void seed(ConfigurableApplicationContext context) {
+        long started = System.nanoTime();
+        JdbcTemplate jdbc = context.getBean(JdbcTemplate.class);
+        String hash = context.getBean(PasswordEncoder.class).encode(PASSWORD);
+        long lastEmployee = FIRST_ID + employees - 1;
+        long lastDepartment = FIRST_ID + departments - 1;
+
+        jdbc.update("insert into department (id, name, location, version) "
+                + "select x, 'Department ' || x, 'Floor ' || mod(x, 10), 0 from system_range(?, ?)",
+                FIRST_ID, lastDepartment);
+        jdbc.update("insert into users (id, username, password, role) "
+                + "select x, 'load' || x || '@example.com', ?, 'ROLE_USER' from system_range(?, ?)",
+                hash, FIRST_ID, lastEmployee);
+        jdbc.update("insert into employee (id, name, role, email, department_id, user_id, version, "
+                + "name_lower, email_lower, role_lower) "
+                + "select x, n, 'Role' || mod(x, 8), e, ? + mod(x, ?), x, 0, lower(n), e, 'role' || mod(x, 8) "
+                + "from (select x, 'Load Person' || x as n, 'load' || x || '@example.com' as e "
+                + "from system_range(?, ?))", FIRST_ID, departments, FIRST_ID, lastEmployee);
+        jdbc.execute("analyze");
+
+        // Startup reads (departments, stats) were cached before the rows existed
+        context.getBean(EntityManagerFactory.class).getCache().evictAll();
+        CacheManager caches = context.getBean(CacheManager.class);
+        caches.getCacheNames().forEach(name -> caches.getCache(name).clear());
+        System.out.printf("Seeded %d employees and %d departments in %.1f s%n", employees, departments,
+                (System.nanoTime() - started) / 1e9);
+    }
+
+    /** Matches the department_id the seed gives each employee. */
+    private String departmentOf(long employeeId) {
+        return "Department " + (FIRST_ID + employeeId % departments);
+    }
+
+    private void report(double seconds, int mails, File resultFile) throws IOException {
+        ObjectNode result = mapper.createObjectNode();
+        ObjectNode config = result.putObject("config");
+        config.put("employees", employees);
+        config.put("departments", departments);
+        config.put("concurrency", concurrency);
+        config.put("warmup", warmup.toString());
+        config.put("duration", duration.toString());
+        config.put("bcryptStrength", bcryptStrength);
+        config.put("processors", Runtime.getRuntime().availableProcessors());
+        result.put("seconds", seconds);
+        result.put("mailsDelivered", mails);
+        ArrayNode endpoints = result.putArray("endpoints");
+
+        long total = 0;
+        System.out.printf("%n%s%n", EndpointStats.header());
+        for (EndpointStats endpoint : stats.values()) {
+            System.out.println(endpoint.row(seconds));
+            endpoint.writeTo(endpoints.addObject(), seconds);
+            total += endpoint.requests();
+        }
+        result.put("throughput", total / seconds);
+        System.out.printf("%d requests in %.1f s (%.1f req/s), %d mails delivered%n", total, seconds,
+                total / seconds, mails);
+
+        resultFile.getParentFile().mkdirs();
+        mapper.writerWithDefaultPrettyPrinter().writeValue(resultFile, result);
+        System.out.println("Results written to " + resultFile);
+    }
+
+    /** One simulated user: logs in as its own seeded employee and keeps its tokens. */
+    private final class Client {
+
+        private final long employeeId;
+        private final String username;
+        private String accessToken;
+        private String refreshToken;
+
+        Client(long employeeId) {
+            this.employeeId = employeeId;
+            this.username = "load" + employeeId + "@example.com";
+        }
+
+        void run() throws InterruptedException {
+            login();
+            while (running) {
+                Operation operation = Operation.pick();
+                HttpResponse<String> response = execute(operation);
+                if (response != null && response.statusCode() == 401 && operation != Operation.LOGIN) {
+                    login();
+                }
+            }
+        }
+
+        private HttpResponse<String> execute(Operation operation) throws InterruptedException {
+            ThreadLocalRandom random = ThreadLocalRandom.current();
+            return switch (operation) {
+                case LOGIN -> login();
+                case REFRESH -> {
+                    HttpResponse<String> response = send(operation, post("/auth/refresh-token",
+                            Map.of("refreshToken", refreshToken)));
+                    if (response != null && response.statusCode() == 200) {
+                        accessToken = json(response).path("accessToken").asText();
+                    }
+                    yield response;
+                }
+                case GET_EMPLOYEE -> send(operation, authorized("/employees/" + employeeId).GET().build());
+                case LIST_EMPLOYEES -> send(operation, authorized("/employees?limit=" + PAGE + "&after="
+                        + (FIRST_ID + random.nextLong(employees))).GET().build());
+                case UPDATE_EMPLOYEE -> send(operation, authorized("/employees/" + employeeId)
+                        .header("Content-Type", "application/json")
+                        .PUT(body(Map.of("name", "Load Person" + employeeId,
+                                "role", "Role" + random.nextInt(8),
+                                "email", username,
+                                "departmentName", departmentOf(employeeId))))
+                        .build());
+                case LIST_DEPARTMENTS -> send(operation, authorized("/departments").GET().build());
+                case GET_DEPARTMENT -> send(operation, authorized("/departments/"
+                        + (FIRST_ID + random.nextInt(departments))).GET().build());
+                case REGISTER -> send(operation, post("/auth/register", Map.of(
+                        "username", "register" + registrations.incrementAndGet() + "@example.com",
+                        "password", PASSWORD,
+                        "role", "ROLE_USER")));
+            };
+        }
+
+        private HttpResponse<String> login() throws InterruptedException {
+            HttpResponse<String> response = send(Operation.LOGIN, post("/auth/login",
+                    Map.of("username", username, "password", PASSWORD)));
+            if (response != null && response.statusCode() == 200) {
+                JsonNode tokens = json(response);
+                accessToken = tokens.path("accessToken").asText();
+                refreshToken = tokens.path("refreshToken").asText();
+            }
+            return response;
+        }
+
+        private HttpRequest.Builder authorized(String path) {
+            return HttpRequest.newBuilder(URI.create(baseUrl + path))
+                    .header("Authorization", "Bearer " + accessToken)
+                    .header("Accept", "application/hal+json");
+        }
+
+        private HttpRequest post(String path, Map<String, String> payload) {
+            return HttpRequest.newBuilder(URI.create(baseUrl + path))
+                    .header("Content-Type", "application/json")
+                    .POST(body(payload))
+                    .build();
+        }
+
+        private HttpRequest.BodyPublisher body(Map<String, String> payload) {
+            try {
+                return HttpRequest.BodyPublishers.ofString(mapper.writeValueAsString(payload));
+            } catch (IOException e) {
+                throw new IllegalStateException(e);
+            }
+        }
+
+        private JsonNode json(HttpResponse<String> response) {
+            try {
+                return mapper.readTree(response.body());
+            } catch (IOException e) {
+                throw new IllegalStateException(e);
+            }
+        }
+
+        /** Sends a request; returns null if it failed without a response. */
+        private HttpResponse<String> send(Operation operation, HttpRequest request) throws InterruptedException {
+            long start = System.nanoTime();
+            try {
+                HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
+                if (measuring) {
+                    stats.get(operation).record((System.nanoTime() - start) / 1000, response.statusCode());
+                }
+                return response;
+            } catch (IOException e) {
+                if (measuring) {
+                    stats.get(operation).recordFailure((System.nanoTime() - start) / 1000, e);
+                }
+                return null;
+            }
+        }
+    }
+}
@@ -0,0 +1,22 @@
+package com.example.payroll;
+
+import java.util.concurrent.ThreadFactory;
+
+/**
+ * Thread factories for the application's own background executors. Executors whose work
+ * blocks on JDBC follow {@code spring.threads.virtual.enabled} the same way Tomcat and the
+ * task executors do. CPU-bound pools, and work that blocks inside synchronized code, always
+ * use platform threads.
+ */
+public final class BackgroundThreads {
+
+    public static final String VIRTUAL_THREADS_PROPERTY = "${spring.threads.virtual.enabled:false}";
+
+    private BackgroundThreads() {
+    }
+
+    public static ThreadFactory forBlockingWork(String prefix, boolean virtual) {
+        return virtual ? Thread.ofVirtual().name(prefix, 0).factory()
+                : Thread.ofPlatform().name(prefix, 0).daemon().factory();
+    }
+}
@@ -0,0 +1,88 @@
+package com.example.payroll;
+
+import java.time.Duration;
+import java.util.OptionalLong;
+
+import javax.cache.CacheManager;
+
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.hibernate.cache.spi.RegionFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.jcache.configuration.CaffeineConfiguration;
+import com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider;
+
+@Configuration
+public class CacheConfig {
+
+    // Hibernate second-level cache regions, one per cached entity
+    public static final String EMPLOYEE_REGION = "employees";
+    public static final String DEPARTMENT_REGION = "departments";
+    public static final String USER_REGION = "users";
+
+    // Components own their Caffeine caches and register them here so their statistics
+    // can be reported from one place.
+    @Bean
+    public CaffeineCacheManager cacheManager() {
+        CaffeineCacheManager cacheManager = new CaffeineCacheManager();
+        cacheManager.setAllowNullValues(false);
+        return cacheManager;
+    }
+
+    /**
+     * Regions for Hibernate's second-level and query caches. Each is a bounded Caffeine cache
+     * with its own size and TTL; the TTL only bounds staleness for writes made by other
+     * instances, since Hibernate invalidates on every write through this one. Entries are
+     * held by reference, and each region is registered with {@link #cacheManager()} so its
+     * hits and misses show up next to the other caches.
+     */
+    @Bean
+    public CacheManager hibernateCacheManager(CaffeineCacheManager cacheManager,
+            @Value("${payroll.entity-cache.employees.maximum-size:100000}") long employeesSize,
+            @Value("${payroll.entity-cache.employees.ttl:PT10M}") Duration employeesTtl,
+            @Value("${payroll.entity-cache.departments.maximum-size:1000}") long departmentsSize,
+            @Value("${payroll.entity-cache.departments.ttl:PT1H}") Duration departmentsTtl,
+            @Value("${payroll.entity-cache.users.maximum-size:10000}") long usersSize,
+            @Value("${payroll.entity-cache.users.ttl:PT10M}") Duration usersTtl,
+            @Value("${payroll.entity-cache.queries.maximum-size:10000}") long queriesSize,
+            @Value("${payroll.entity-cache.queries.ttl:PT5M}") Duration queriesTtl) {
+        // A provider of its own, so each application context gets separate regions
+        CacheManager hibernateCacheManager = new CaffeineCachingProvider().getCacheManager();
+        createRegion(hibernateCacheManager, cacheManager, EMPLOYEE_REGION, employeesSize, employeesTtl);
+        createRegion(hibernateCacheManager, cacheManager, DEPARTMENT_REGION, departmentsSize, departmentsTtl);
+        createRegion(hibernateCacheManager, cacheManager, USER_REGION, usersSize, usersTtl);
+        createRegion(hibernateCacheManager, cacheManager, RegionFactory.DEFAULT_QUERY_RESULTS_REGION_UNQUALIFIED_NAME,
+                queriesSize, queriesTtl);
+        // Holds one timestamp per table; evicting one would let stale query results through
+        createRegion(hibernateCacheManager, cacheManager,
+                RegionFactory.DEFAULT_UPDATE_TIMESTAMPS_REGION_UNQUALIFIED_NAME, 0, null);
+        return hibernateCacheManager;
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer hibernateCacheCustomizer(CacheManager hibernateCacheManager) {
+        return properties -> properties.put(ConfigSettings.CACHE_MANAGER, hibernateCacheManager);
+    }
+
+    private static void createRegion(CacheManager hibernateCacheManager, CaffeineCacheManager cacheManager,
+            String name, long maximumSize, Duration ttl) {
+        CaffeineConfiguration<Object, Object> configuration = new CaffeineConfiguration<>();
+        configuration.setStoreByValue(false);
+        configuration.setNativeStatisticsEnabled(true);
+        if (maximumSize > 0) {
+            configuration.setMaximumSize(OptionalLong.of(maximumSize));
+        }
+        if (ttl != null) {
+            configuration.setExpireAfterWrite(OptionalLong.of(ttl.toNanos()));
+        }
+        javax.cache.Cache<Object, Object> region = hibernateCacheManager.createCache(name, configuration);
+        @SuppressWarnings("unchecked")
+        Cache<Object, Object> nativeCache = region.unwrap(Cache.class);
+        cacheManager.registerCustomCache("hibernate." + name, nativeCache);
+    }
+}
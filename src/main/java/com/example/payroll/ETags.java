@@ -0,0 +1,40 @@
+package com.example.payroll;
+
+/**
+ * Strong entity tags built from JPA {@code @Version} columns. A representation changes only
+ * when one of the versions it is built from changes, so the tag can be computed from those
+ * versions without loading or serializing the entity.
+ */
+public final class ETags {
+
+    private ETags() {
+    }
+
+    public static String of(Object... versions) {
+        StringBuilder etag = new StringBuilder("\"");
+        for (int i = 0; i < versions.length; i++) {
+            if (i > 0) {
+                etag.append('-');
+            }
+            etag.append(versions[i]);
+        }
+        return etag.append('"').toString();
+    }
+
+    /**
+     * Whether an {@code If-Match} header admits the current tag. A missing header is an
+     * unconditional request. Weak tags never match, as RFC 9110 requires strong comparison.
+     */
+    public static boolean ifMatch(String header, String etag) {
+        if (header == null) {
+            return true;
+        }
+        for (String candidate : header.split(",")) {
+            String tag = candidate.trim();
+            if (tag.equals("*") || tag.equals(etag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -1,49 +1,80 @@
 package com.example.payroll;
 
-import jakarta.mail.MessagingException;
-import jakarta.mail.internet.MimeMessage;
-import org.springframework.mail.javamail.JavaMailSender;
-import org.springframework.mail.javamail.MimeMessageHelper;
-import org.springframework.scheduling.annotation.Async;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
-import org.thymeleaf.TemplateEngine;
-import org.thymeleaf.context.Context;
+
+import com.example.payroll.MailDispatcher.OutboundMail;
 
 @Service
 public class EmailService {
 
-    private final JavaMailSender mailSender;
-    private final TemplateEngine templateEngine;
+    private final MailDispatcher mailDispatcher;
+    private final EmailTemplates emailTemplates;
+    private final int maxPendingNotifications;
+
+    // Admin notifications waiting for the next digest, keyed by recipient
+    private final Map<String, List<String>> pendingNotifications = new LinkedHashMap<>();
+    private int pendingCount;
 
-    public EmailService(JavaMailSender mailSender, TemplateEngine templateEngine) {
-        this.mailSender = mailSender;
-        this.templateEngine = templateEngine;
+    public EmailService(MailDispatcher mailDispatcher, EmailTemplates emailTemplates,
+            @Value("${payroll.mail.digest.max-pending:10000}") int maxPendingNotifications) {
+        this.mailDispatcher = mailDispatcher;
+        this.emailTemplates = emailTemplates;
+        this.maxPendingNotifications = maxPendingNotifications;
     }
 
-    @Async
-    public void sendWelcomeEmail(String to, String username) throws MessagingException {
-        Context context = new Context();
-        context.setVariable("username", username);
-        String htmlContent = templateEngine.process("welcome-email", context);
+    public boolean sendWelcomeEmail(String to, String username) {
+        String htmlContent = emailTemplates.welcomeEmail(username);
 
-        sendEmail(to, "Welcome to Our Platform!", htmlContent);
+        return mailDispatcher.submit(new OutboundMail(to, "Welcome to Our Platform!", htmlContent));
     }
 
-    @Async
-    public void sendAdminNotification(String to, String message) throws MessagingException {
-        Context context = new Context();
-        context.setVariable("message", message);
-        String htmlContent = templateEngine.process("admin-notification", context);
+    /**
+     * Adds the message to the recipient's next digest instead of sending it right away.
+     * The oldest pending messages are dropped once {@code max-pending} is reached.
+     */
+    public synchronized void sendAdminNotification(String to, String message) {
+        if (pendingCount >= maxPendingNotifications) {
+            dropOldestNotification();
+        }
+        pendingNotifications.computeIfAbsent(to, key -> new ArrayList<>()).add(message);
+        pendingCount++;
+    }
+
+    @Scheduled(fixedDelayString = "${payroll.mail.digest.interval:PT1M}",
+            initialDelayString = "${payroll.mail.digest.interval:PT1M}")
+    public void flushAdminDigests() {
+        Map<String, List<String>> digests;
+        synchronized (this) {
+            if (pendingNotifications.isEmpty()) {
+                return;
+            }
+            digests = new LinkedHashMap<>(pendingNotifications);
+            pendingNotifications.clear();
+            pendingCount = 0;
+        }
+
+        digests.forEach((to, messages) -> {
+            String htmlContent = emailTemplates.adminDigest(messages);
+            String subject = messages.size() == 1 ? "New User Registered"
+                    : messages.size() + " New Users Registered";
 
-        sendEmail(to, "New User Registered", htmlContent);
+            mailDispatcher.submit(new OutboundMail(to, subject, htmlContent));
+        });
     }
 
-    private void sendEmail(String to, String subject, String htmlContent) throws MessagingException {
-        MimeMessage message = mailSender.createMimeMessage();
-        MimeMessageHelper helper = new MimeMessageHelper(message, true);
-        helper.setTo(to);
-        helper.setSubject(subject);
-        helper.setText(htmlContent, true);
-        mailSender.send(message);
+    private void dropOldestNotification() {
+        var oldest = pendingNotifications.entrySet().iterator().next();
+        oldest.getValue().remove(0);
+        if (oldest.getValue().isEmpty()) {
+            pendingNotifications.remove(oldest.getKey());
+        }
+        pendingCount--;
     }
 }
@@ -0,0 +1,40 @@
+package com.example.payroll;
+
+import java.util.List;
+
+import org.springframework.stereotype.Component;
+import org.thymeleaf.TemplateEngine;
+import org.thymeleaf.context.Context;
+
+/**
+ * Email bodies. Both templates are resolved and parsed at startup; the welcome email, sent
+ * once per signup, is additionally pre-rendered so each message only substitutes the username.
+ * The admin digest iterates over its messages and is rendered by the engine from the cached
+ * parse.
+ */
+@Component
+public class EmailTemplates {
+
+    static final String WELCOME_EMAIL = "welcome-email";
+    static final String ADMIN_NOTIFICATION = "admin-notification";
+
+    private final TemplateEngine templateEngine;
+    private final PrecompiledTemplate welcomeEmail;
+
+    public EmailTemplates(TemplateEngine templateEngine) {
+        this.templateEngine = templateEngine;
+        this.welcomeEmail = PrecompiledTemplate.compile(templateEngine, WELCOME_EMAIL, "username");
+        // Warm-up: puts the digest's parse in the template cache before the first digest is due
+        adminDigest(List.of());
+    }
+
+    public String welcomeEmail(String username) {
+        return welcomeEmail.render(username);
+    }
+
+    public String adminDigest(List<String> messages) {
+        Context context = new Context();
+        context.setVariable("messages", messages);
+        return templateEngine.process(ADMIN_NOTIFICATION, context);
+    }
+}
@@ -0,0 +1,42 @@
+package com.example.payroll;
+
+import org.springframework.hateoas.Link;
+import org.springframework.hateoas.server.mvc.WebMvcLinkBuilder;
+
+/**
+ * Links for the elements of one response, resolved against the request once. The item
+ * template comes from {@code linkTo(methodOn(...).one(null))}, which leaves the id as a
+ * {@code {id}} variable; each element then costs a string concatenation rather than a
+ * controller proxy invocation and a request lookup. The collection link is immutable and
+ * shared by every element.
+ */
+public final class ItemLinks {
+
+    private final String prefix;
+    private final String suffix;
+    private final Link collection;
+
+    private ItemLinks(String prefix, String suffix, Link collection) {
+        this.prefix = prefix;
+        this.suffix = suffix;
+        this.collection = collection;
+    }
+
+    public static ItemLinks of(WebMvcLinkBuilder item, Link collection) {
+        String template = item.withSelfRel().getHref();
+        int start = template.indexOf('{');
+        int end = template.indexOf('}', start);
+        if (start < 0 || end < 0 || template.indexOf('{', end) >= 0) {
+            throw new IllegalArgumentException("Expected exactly one path variable in " + template);
+        }
+        return new ItemLinks(template.substring(0, start), template.substring(end + 1), collection);
+    }
+
+    public Link self(Object id) {
+        return Link.of(prefix + id + suffix);
+    }
+
+    public Link collection() {
+        return collection;
+    }
+}
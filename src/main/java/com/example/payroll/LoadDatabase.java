@@ -1,33 +1,32 @@
 package com.example.payroll;
 
+import java.util.List;
+
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.CommandLineRunner;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
-import org.springframework.security.crypto.password.PasswordEncoder;
 
 import com.example.payroll.departmentService.Department;
 import com.example.payroll.departmentService.DepartmentRepository;
 import com.example.payroll.employeeService.Employee;
 import com.example.payroll.employeeService.EmployeeRepository;
+import com.example.payroll.security.PasswordHashingService;
 import com.example.payroll.security.User;
 import com.example.payroll.security.UserRepository;
 
 @Configuration
 class LoadDatabase {
 
-    @Autowired
-    private PasswordEncoder passwordEncoder;
-
     private static final Logger log = LoggerFactory.getLogger(LoadDatabase.class);
 
     @Bean
     CommandLineRunner initDatabase(
             EmployeeRepository employeeRepository,
             DepartmentRepository departmentRepository,
-            UserRepository userRepository) {
+            UserRepository userRepository,
+            PasswordHashingService passwordHashingService) {
 
         return args -> {
 
@@ -42,8 +41,9 @@ class LoadDatabase {
             }
 
             if (userRepository.count() == 0) {
-                User adminUser = new User("Bilbo@gmail.com", passwordEncoder.encode("bilbo"), "ROLE_ADMIN");
-                User normalUser = new User("Frodo@gmail.com", passwordEncoder.encode("frodo"), "ROLE_USER");
+                List<String> hashes = passwordHashingService.encodeAll(List.of("bilbo", "frodo"));
+                User adminUser = new User("Bilbo@gmail.com", hashes.get(0), "ROLE_ADMIN");
+                User normalUser = new User("Frodo@gmail.com", hashes.get(1), "ROLE_USER");
 
                 userRepository.save(adminUser);
                 userRepository.save(normalUser);
@@ -0,0 +1,250 @@
+package com.example.payroll;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.mail.MailException;
+import org.springframework.mail.MailSendException;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.mail.javamail.MimeMessageHelper;
+import org.springframework.stereotype.Component;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.annotation.PreDestroy;
+import jakarta.mail.MessagingException;
+import jakarta.mail.internet.MimeMessage;
+
+/**
+ * Delivers outbound mail from a bounded queue. Workers drain up to {@code batch-size} mails at
+ * a time and hand them to {@link JavaMailSender#send(MimeMessage...)}, which sends the whole
+ * batch over one SMTP connection. Failed mails are re-queued with exponential backoff until
+ * {@code max-attempts} is reached; when the queue is full new mails are rejected and counted.
+ * The counts, queue depth and batch send time are also published as {@code payroll.mail.*} meters.
+ */
+@Component
+public class MailDispatcher implements MeterBinder {
+
+    private static final Logger log = LoggerFactory.getLogger(MailDispatcher.class);
+
+    public record OutboundMail(String to, String subject, String html) {
+    }
+
+    public record MailStats(int queueDepth, int queueCapacity, long sent, long failed, long retried,
+            long rejected, long batches, double averageBatchMillis, long maxBatchMillis) {
+    }
+
+    private record Delivery(OutboundMail mail, int attempt) {
+    }
+
+    private final JavaMailSender mailSender;
+    private final BlockingQueue<Delivery> queue;
+    private final int batchSize;
+    private final int maxAttempts;
+    private final Duration initialBackoff;
+    private final Duration maxBackoff;
+    private final ExecutorService workers;
+    private final ScheduledExecutorService retryScheduler;
+
+    private final AtomicLong sent = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+    private final AtomicLong retried = new AtomicLong();
+    private final AtomicLong rejected = new AtomicLong();
+    private final AtomicLong batches = new AtomicLong();
+    private final AtomicLong batchNanos = new AtomicLong();
+    private final AtomicLong maxBatchNanos = new AtomicLong();
+    private volatile Timer batchTimer;
+
+    public MailDispatcher(JavaMailSender mailSender,
+            @Value("${payroll.mail.queue-capacity:1000}") int queueCapacity,
+            @Value("${payroll.mail.workers:2}") int workerCount,
+            @Value("${payroll.mail.batch-size:50}") int batchSize,
+            @Value("${payroll.mail.retry.max-attempts:5}") int maxAttempts,
+            @Value("${payroll.mail.retry.initial-backoff:PT1S}") Duration initialBackoff,
+            @Value("${payroll.mail.retry.max-backoff:PT5M}") Duration maxBackoff) {
+        this.mailSender = mailSender;
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        this.batchSize = batchSize;
+        this.maxAttempts = maxAttempts;
+        this.initialBackoff = initialBackoff;
+        this.maxBackoff = maxBackoff;
+        this.retryScheduler = Executors.newSingleThreadScheduledExecutor(
+                Thread.ofPlatform().name("mail-retry").daemon().factory());
+        // Platform threads even in virtual-thread mode: Jakarta Mail's Service.connect and
+        // SMTPTransport are synchronized, so SMTP I/O would pin the carrier thread
+        this.workers = Executors.newFixedThreadPool(workerCount,
+                Thread.ofPlatform().name("mail-dispatch-", 0).daemon().factory());
+        for (int i = 0; i < workerCount; i++) {
+            workers.execute(this::drainLoop);
+        }
+    }
+
+    /**
+     * Queues a mail for delivery without blocking. Returns {@code false} if the queue is full.
+     */
+    public boolean submit(OutboundMail mail) {
+        if (queue.offer(new Delivery(mail, 1))) {
+            return true;
+        }
+        rejected.incrementAndGet();
+        log.warn("Mail queue full, dropping mail to {}", mail.to());
+        return false;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("payroll.mail.queue.depth", queue, BlockingQueue::size)
+                .description("Mails waiting for a dispatch worker")
+                .register(registry);
+        bindCounter(registry, "sent", sent);
+        bindCounter(registry, "failed", failed);
+        bindCounter(registry, "retried", retried);
+        bindCounter(registry, "rejected", rejected);
+        batchTimer = Timer.builder("payroll.mail.batch")
+                .description("Time to hand one batch to the SMTP server")
+                .register(registry);
+    }
+
+    private static void bindCounter(MeterRegistry registry, String outcome, AtomicLong count) {
+        FunctionCounter.builder("payroll.mail.messages", count, AtomicLong::get)
+                .description("Outbound mails by outcome")
+                .tag("outcome", outcome)
+                .register(registry);
+    }
+
+    public MailStats stats() {
+        long batchCount = batches.get();
+        double averageMillis = batchCount == 0 ? 0 : batchNanos.get() / 1e6 / batchCount;
+        return new MailStats(queue.size(), queue.size() + queue.remainingCapacity(), sent.get(), failed.get(),
+                retried.get(), rejected.get(), batchCount, averageMillis,
+                TimeUnit.NANOSECONDS.toMillis(maxBatchNanos.get()));
+    }
+
+    private void drainLoop() {
+        List<Delivery> batch = new ArrayList<>(batchSize);
+        while (!Thread.currentThread().isInterrupted()) {
+            try {
+                batch.add(queue.take());
+                queue.drainTo(batch, batchSize - 1);
+                deliver(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } catch (RuntimeException e) {
+                log.error("Unexpected error in mail dispatcher", e);
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    private void deliver(List<Delivery> batch) {
+        Map<MimeMessage, Delivery> messages = new IdentityHashMap<>();
+        for (Delivery delivery : batch) {
+            try {
+                messages.put(toMimeMessage(delivery.mail()), delivery);
+            } catch (MessagingException e) {
+                // A message that cannot be built will not build on retry either
+                failed.incrementAndGet();
+                log.error("Could not build mail to {}", delivery.mail().to(), e);
+            }
+        }
+        if (messages.isEmpty()) {
+            return;
+        }
+
+        long start = System.nanoTime();
+        try {
+            mailSender.send(messages.keySet().toArray(MimeMessage[]::new));
+            sent.addAndGet(messages.size());
+        } catch (MailSendException e) {
+            // Only the listed messages failed; an empty map means the connection itself failed
+            Map<Object, Exception> failedMessages = e.getFailedMessages();
+            if (failedMessages.isEmpty()) {
+                retryAll(messages.values(), e);
+            } else {
+                sent.addAndGet(messages.size() - failedMessages.size());
+                failedMessages.forEach((message, cause) -> retry(messages.get(message), cause));
+            }
+        } catch (MailException e) {
+            retryAll(messages.values(), e);
+        } finally {
+            recordBatch(System.nanoTime() - start);
+        }
+    }
+
+    private void retryAll(Iterable<Delivery> deliveries, Exception cause) {
+        for (Delivery delivery : deliveries) {
+            retry(delivery, cause);
+        }
+    }
+
+    private void retry(Delivery delivery, Exception cause) {
+        if (delivery == null || delivery.attempt() >= maxAttempts) {
+            failed.incrementAndGet();
+            log.error("Giving up on mail to {} after {} attempts",
+                    delivery == null ? "unknown recipient" : delivery.mail().to(),
+                    delivery == null ? 0 : delivery.attempt(), cause);
+            return;
+        }
+        long delay = backoff(delivery.attempt()).toMillis();
+        log.warn("Mail to {} failed (attempt {}), retrying in {} ms: {}", delivery.mail().to(), delivery.attempt(),
+                delay, cause.getMessage());
+        retried.incrementAndGet();
+        Delivery next = new Delivery(delivery.mail(), delivery.attempt() + 1);
+        retryScheduler.schedule(() -> {
+            if (!queue.offer(next)) {
+                rejected.incrementAndGet();
+                log.warn("Mail queue full, dropping retry of mail to {}", next.mail().to());
+            }
+        }, delay, TimeUnit.MILLISECONDS);
+    }
+
+    Duration backoff(int attempt) {
+        Duration delay = initialBackoff.multipliedBy(1L << Math.min(attempt - 1, 30));
+        return delay.compareTo(maxBackoff) > 0 ? maxBackoff : delay;
+    }
+
+    private MimeMessage toMimeMessage(OutboundMail mail) throws MessagingException {
+        MimeMessage message = mailSender.createMimeMessage();
+        MimeMessageHelper helper = new MimeMessageHelper(message, true);
+        helper.setTo(mail.to());
+        helper.setSubject(mail.subject());
+        helper.setText(mail.html(), true);
+        return message;
+    }
+
+    private void recordBatch(long nanos) {
+        batches.incrementAndGet();
+        batchNanos.addAndGet(nanos);
+        maxBatchNanos.accumulateAndGet(nanos, Math::max);
+        Timer timer = batchTimer;
+        if (timer != null) {
+            timer.record(nanos, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        workers.shutdownNow();
+        retryScheduler.shutdownNow();
+        if (!queue.isEmpty()) {
+            log.warn("Discarding {} undelivered mails on shutdown", queue.size());
+        }
+    }
+}
@@ -0,0 +1,79 @@
+package com.example.payroll;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.thymeleaf.TemplateEngine;
+import org.thymeleaf.context.Context;
+import org.unbescape.html.HtmlEscape;
+
+/**
+ * A Thymeleaf template rendered once with placeholder values and split into its static
+ * fragments, so rendering a message is just concatenation of the fragments with the escaped
+ * variable values. Only suitable for templates whose variables are plain {@code th:text}
+ * values; templates with conditionals or iteration over variables must go through the engine.
+ */
+final class PrecompiledTemplate {
+
+    private final String[] fragments;
+    private final int[] slots;
+    private final int staticLength;
+
+    private PrecompiledTemplate(String[] fragments, int[] slots) {
+        this.fragments = fragments;
+        this.slots = slots;
+        int length = 0;
+        for (String fragment : fragments) {
+            length += fragment.length();
+        }
+        this.staticLength = length;
+    }
+
+    static PrecompiledTemplate compile(TemplateEngine templateEngine, String name, String... variables) {
+        // Placeholders are alphanumeric so escaping leaves them intact in the rendered output
+        String marker = "tpl" + UUID.randomUUID().toString().replace("-", "");
+        Context context = new Context();
+        for (int i = 0; i < variables.length; i++) {
+            context.setVariable(variables[i], marker + i + "x");
+        }
+        String rendered = templateEngine.process(name, context);
+
+        List<String> fragments = new ArrayList<>();
+        List<Integer> slots = new ArrayList<>();
+        Matcher matcher = Pattern.compile(marker + "(\\d+)x").matcher(rendered);
+        int start = 0;
+        while (matcher.find()) {
+            fragments.add(rendered.substring(start, matcher.start()));
+            slots.add(Integer.parseInt(matcher.group(1)));
+            start = matcher.end();
+        }
+        fragments.add(rendered.substring(start));
+
+        return new PrecompiledTemplate(fragments.toArray(String[]::new),
+                slots.stream().mapToInt(Integer::intValue).toArray());
+    }
+
+    /**
+     * Renders the template with the given values, in the order the variables were declared
+     * in {@link #compile}. Values are HTML-escaped the same way {@code th:text} escapes them.
+     */
+    String render(String... values) {
+        String[] escaped = new String[values.length];
+        int length = staticLength;
+        for (int i = 0; i < values.length; i++) {
+            escaped[i] = values[i] == null ? "" : HtmlEscape.escapeHtml4Xml(values[i]);
+        }
+        for (int slot : slots) {
+            length += escaped[slot].length();
+        }
+
+        StringBuilder html = new StringBuilder(length);
+        for (int i = 0; i < slots.length; i++) {
+            html.append(fragments[i]).append(escaped[slots[i]]);
+        }
+        return html.append(fragments[slots.length]).toString();
+    }
+}
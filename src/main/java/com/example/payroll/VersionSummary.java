@@ -0,0 +1,19 @@
+package com.example.payroll;
+
+/**
+ * Aggregate of a collection's versions, selected with one query or summed over a page's rows.
+ * Updates change the checksum, inserts raise the row count and the highest id, deletes lower
+ * the count; any of them changes the collection's tag. The tag is weak: it only serves If-None-Match, and Tomcat
+ * will not compress a response that carries a strong one.
+ */
+public record VersionSummary(Long count, Long checksum, Long maxId) {
+
+    public String etag() {
+        return "W/" + ETags.of(count, checksum, maxId);
+    }
+
+    // Other representations of the same rows need their own tags
+    public String etag(String variant) {
+        return "W/" + ETags.of(count, checksum, maxId, variant);
+    }
+}
@@ -4,24 +4,37 @@ import java.util.HashSet;
 import java.util.Objects;
 import java.util.Set;
 
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+
+import com.example.payroll.CacheConfig;
 import com.example.payroll.employeeService.Employee;
 import com.fasterxml.jackson.annotation.JsonIdentityInfo;
 import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.ObjectIdGenerators;
 
+import jakarta.persistence.Cacheable;
 import jakarta.persistence.CascadeType;
 import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.Id;
 import jakarta.persistence.OneToMany;
+import jakarta.persistence.Version;
 
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = CacheConfig.DEPARTMENT_REGION)
 @JsonIdentityInfo(generator = ObjectIdGenerators.PropertyGenerator.class, property = "id")
 public class Department {
     private @Id @GeneratedValue Long id;
     private String name;
     private String location;
 
+    // Server-managed; clients see it only as the ETag
+    @Version
+    @JsonIgnore
+    private Long version;
+
     @OneToMany(mappedBy="department", cascade = CascadeType.ALL)
     @JsonIgnore
     private Set<Employee> employees;
@@ -46,6 +59,10 @@ public class Department {
         return this.location;
     }
 
+    public Long getVersion() {
+        return version;
+    }
+
     public Set<Employee> getEmployees() {
         return employees;
     }
@@ -1,12 +1,11 @@
 package com.example.payroll.departmentService;
 
 
-import java.util.List;
-import java.util.stream.Collectors;
-
 import org.springframework.hateoas.CollectionModel;
 import org.springframework.hateoas.EntityModel;
 import org.springframework.hateoas.IanaLinkRelations;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -14,70 +13,107 @@ import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
 
+import com.example.payroll.ETags;
+import com.example.payroll.exceptions.PreconditionFailedException;
 import com.example.payroll.exceptions.ResourceNotFoundException;
 
+import io.micrometer.core.annotation.Timed;
+
 import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.*;
 
 @RestController
+@Timed(value = "payroll.departments", description = "DepartmentController calls")
 public class DepartmentController {
 
     private final DepartmentRepository repository;
     private final DepartmentModelAssembler assembler;
+    private final DepartmentStatsService statsService;
   
-    DepartmentController(DepartmentRepository repository, DepartmentModelAssembler assembler) {
+    DepartmentController(DepartmentRepository repository, DepartmentModelAssembler assembler,
+        DepartmentStatsService statsService) {
   
       this.repository = repository;
       this.assembler = assembler;
+      this.statsService = statsService;
     }
   
   
     // Aggregate root
     // tag::get-aggregate-root[]
     @GetMapping("/departments")
-    CollectionModel<EntityModel<Department>> all() {
-    
-      List<EntityModel<Department>> departments = repository.findAll().stream() //
-          .map(assembler::toModel) //
-          .collect(Collectors.toList());
+    ResponseEntity<CollectionModel<EntityModel<Department>>> all(WebRequest request) {
+
+      String etag = repository.summarizeVersions().etag();
+      if (request.checkNotModified(etag)) {
+        return ResponseEntity.status(HttpStatus.NOT_MODIFIED).build();
+      }
+
+      CollectionModel<EntityModel<Department>> departments = assembler.toCollectionModel(repository.findAll()) //
+          .add(linkTo(methodOn(DepartmentController.class).all(null)).withSelfRel());
     
-      return CollectionModel.of(departments, linkTo(methodOn(DepartmentController.class).all()).withSelfRel());
+      return ResponseEntity.ok().eTag(etag).body(departments);
     }
     // end::get-aggregate-root[]
+
+    @GetMapping("/departments/stats")
+    CollectionModel<DepartmentStats> stats() {
+      return CollectionModel.of(statsService.stats(),
+          linkTo(methodOn(DepartmentController.class).stats()).withSelfRel(),
+          linkTo(methodOn(DepartmentController.class).all(null)).withRel("departments"));
+    }
   
    @PostMapping("/departments")
   ResponseEntity<?> newDepartment(@RequestBody Department newDepartment) {
   
-    EntityModel<Department> entityModel = assembler.toModel(repository.save(newDepartment));
+    Department department = repository.save(newDepartment);
+
+    EntityModel<Department> entityModel = assembler.toModel(department);
   
     return ResponseEntity //
         .created(entityModel.getRequiredLink(IanaLinkRelations.SELF).toUri()) //
+        .eTag(ETags.of(department.getVersion())) //
         .body(entityModel);
   }
   
     // Single item
     
     @GetMapping("/departments/{id}")
-    EntityModel<Department> one(@PathVariable Long id) {
+    public ResponseEntity<EntityModel<Department>> one(@PathVariable Long id, WebRequest request) {
     
       Department Department = repository.findById(id) //
           .orElseThrow(() -> new ResourceNotFoundException("Department with ID "+id+" not found"));
+
+      // Writes update the second-level cache entry, so a cached version is current
+      String etag = ETags.of(Department.getVersion());
+      if (request.checkNotModified(etag)) {
+        return ResponseEntity.status(HttpStatus.NOT_MODIFIED).build();
+      }
     
-          return assembler.toModel(Department);
+      return ResponseEntity.ok().eTag(etag).body(assembler.toModel(Department));
     }
 
   
     @PutMapping("/departments/{id}")
-    ResponseEntity<?> replaceDepartment(@RequestBody Department newDepartment, @PathVariable Long id) {
+    ResponseEntity<?> replaceDepartment(@RequestBody Department newDepartment, @PathVariable Long id,
+        @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
     
       Department updatedDepartment = repository.findById(id) //
           .map(department -> {
+            if (!ETags.ifMatch(ifMatch, ETags.of(department.getVersion()))) {
+              throw new PreconditionFailedException("Department with ID " + id + " has been modified.");
+            }
             department.setName(newDepartment.getName());
             department.setLocation(newDepartment.getLocation());
             return repository.save(department);
           }) //
           .orElseGet(() -> {
+            if (ifMatch != null) {
+              throw new PreconditionFailedException("Department with ID " + id + " does not exist.");
+            }
             return repository.save(newDepartment);
           });
     
@@ -85,6 +121,7 @@ public class DepartmentController {
     
       return ResponseEntity //
           .created(entityModel.getRequiredLink(IanaLinkRelations.SELF).toUri()) //
+          .eTag(ETags.of(updatedDepartment.getVersion())) //
           .body(entityModel);
     }
   
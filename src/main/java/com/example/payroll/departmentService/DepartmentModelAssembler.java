@@ -2,18 +2,41 @@ package com.example.payroll.departmentService;
 
 import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.*;
 
+import java.util.ArrayList;
+import java.util.List;
+
+import org.springframework.hateoas.CollectionModel;
 import org.springframework.hateoas.EntityModel;
 import org.springframework.hateoas.server.RepresentationModelAssembler;
 import org.springframework.stereotype.Component;
 
+import com.example.payroll.ItemLinks;
+
 @Component
 class DepartmentModelAssembler implements RepresentationModelAssembler<Department, EntityModel<Department>> {
 
   @Override
   public EntityModel<Department> toModel(Department department) {
+    return toModel(department, links());
+  }
+
+  // Resolves the links once for the whole collection rather than once per element
+  @Override
+  public CollectionModel<EntityModel<Department>> toCollectionModel(Iterable<? extends Department> departments) {
+    ItemLinks links = links();
+    List<EntityModel<Department>> models = new ArrayList<>();
+    for (Department department : departments) {
+      models.add(toModel(department, links));
+    }
+    return CollectionModel.of(models);
+  }
+
+  private static EntityModel<Department> toModel(Department department, ItemLinks links) {
+    return EntityModel.of(department, links.self(department.getId()), links.collection());
+  }
 
-    return EntityModel.of(department, //
-        linkTo(methodOn(DepartmentController.class).one(department.getId())).withSelfRel(),
-        linkTo(methodOn(DepartmentController.class).all()).withRel("departments"));
+  private static ItemLinks links() {
+    return ItemLinks.of(linkTo(methodOn(DepartmentController.class).one(null, null)),
+        linkTo(methodOn(DepartmentController.class).all(null)).withRel("departments"));
   }
 }
@@ -1,11 +1,44 @@
 package com.example.payroll.departmentService;
 
+import static org.hibernate.jpa.HibernateHints.HINT_CACHEABLE;
+
+import java.util.List;
 import java.util.Optional;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+
+import com.example.payroll.VersionSummary;
+
+import jakarta.persistence.QueryHint;
 
 public interface DepartmentRepository extends JpaRepository<Department, Long> {
 
+    // Employee writes resolve departments by name. Results are cached, empty ones included, until
+    // a department is written; the department itself then comes from its entity region.
+    @QueryHints(@QueryHint(name = HINT_CACHEABLE, value = "true"))
     public Optional<Department> findByName(String name);
 
+    // Cached until a department is written, like the version summary that guards it
+    @Override
+    @QueryHints(@QueryHint(name = HINT_CACHEABLE, value = "true"))
+    public List<Department> findAll();
+
+    @QueryHints(@QueryHint(name = HINT_CACHEABLE, value = "true"))
+    @Query("select new com.example.payroll.VersionSummary(count(d), coalesce(sum(d.version), 0), coalesce(max(d.id), 0)) "
+            + "from Department d")
+    public VersionSummary summarizeVersions();
+
+    // Scans employee; one row per department and role
+    @Query("select new com.example.payroll.departmentService.RoleCount(d.id, d.name, coalesce(e.role, ''), count(e)) "
+            + "from Department d left join d.employees e group by d.id, d.name, coalesce(e.role, '') order by d.id")
+    public List<RoleCount> countRoles();
+
+    // Reads the maintained counters instead; touches no employee rows
+    @Query("select new com.example.payroll.departmentService.RoleCount(d.id, d.name, c.role, c.headcount) "
+            + "from Department d left join DepartmentRoleCount c on c.departmentId = d.id and c.headcount > 0 "
+            + "order by d.id")
+    public List<RoleCount> findRoleCounts();
+
 }
\ No newline at end of file
@@ -0,0 +1,44 @@
+package com.example.payroll.departmentService;
+
+import java.io.Serializable;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.IdClass;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Maintained employee count per department and role, used by {@code /departments/stats}
+ * when {@code payroll.department-stats.counters} is on. Rows are written only by
+ * {@link HeadcountCounters}; a null role is stored as the empty string.
+ */
+@Entity
+@Data
+@NoArgsConstructor
+@Table(name = "department_role_count")
+@IdClass(DepartmentRoleCount.Key.class)
+public class DepartmentRoleCount {
+
+    @Id
+    @Column(name = "department_id")
+    private Long departmentId;
+
+    @Id
+    @Column(name = "role")
+    private String role;
+
+    @Column(nullable = false)
+    private Long headcount;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Key implements Serializable {
+        private Long departmentId;
+        private String role;
+    }
+}
@@ -0,0 +1,27 @@
+package com.example.payroll.departmentService;
+
+import static org.hibernate.jpa.HibernateHints.HINT_NATIVE_SPACES;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+
+import jakarta.persistence.QueryHint;
+
+interface DepartmentRoleCountRepository extends JpaRepository<DepartmentRoleCount, DepartmentRoleCount.Key> {
+
+    // Native writes name the table they touch; otherwise Hibernate drops every cache region
+    @Modifying
+    @QueryHints(@QueryHint(name = HINT_NATIVE_SPACES, value = "department_role_count"))
+    @Query(value = "delete from department_role_count", nativeQuery = true)
+    int deleteAllCounts();
+
+    @Modifying
+    @QueryHints(@QueryHint(name = HINT_NATIVE_SPACES, value = "department_role_count"))
+    @Query(value = """
+            insert into department_role_count (department_id, role, headcount)
+            select department_id, coalesce(role, ''), count(*) from employee group by department_id, coalesce(role, '')
+            """, nativeQuery = true)
+    int countAllEmployees();
+}
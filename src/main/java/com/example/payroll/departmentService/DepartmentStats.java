@@ -0,0 +1,6 @@
+package com.example.payroll.departmentService;
+
+import java.util.Map;
+
+public record DepartmentStats(Long id, String name, long headcount, Map<String, Long> roles) {
+}
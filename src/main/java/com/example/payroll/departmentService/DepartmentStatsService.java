@@ -0,0 +1,48 @@
+package com.example.payroll.departmentService;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+/**
+ * Headcount and role breakdown per department. By default it is a single GROUP BY over the
+ * employee table. With {@code payroll.department-stats.counters=true} it reads the counters
+ * kept by {@link HeadcountCounters}, a cost proportional to departments and roles rather
+ * than to employees.
+ */
+@Service
+public class DepartmentStatsService {
+
+    private final DepartmentRepository repository;
+    private final boolean counters;
+
+    public DepartmentStatsService(DepartmentRepository repository,
+            @Value("${payroll.department-stats.counters:false}") boolean counters) {
+        this.repository = repository;
+        this.counters = counters;
+    }
+
+    public List<DepartmentStats> stats() {
+        List<RoleCount> rows = counters ? repository.findRoleCounts() : repository.countRoles();
+
+        // Rows arrive ordered by department, one per role
+        Map<Long, DepartmentStats> stats = new LinkedHashMap<>();
+        for (RoleCount row : rows) {
+            DepartmentStats department = stats.computeIfAbsent(row.departmentId(),
+                    id -> new DepartmentStats(id, row.departmentName(), 0, new LinkedHashMap<>()));
+            if (row.headcount() != null && row.headcount() > 0) {
+                department.roles().put(row.role(), row.headcount());
+            }
+        }
+        List<DepartmentStats> result = new ArrayList<>(stats.size());
+        for (DepartmentStats department : stats.values()) {
+            long headcount = department.roles().values().stream().mapToLong(Long::longValue).sum();
+            result.add(new DepartmentStats(department.id(), department.name(), headcount, department.roles()));
+        }
+        return result;
+    }
+}
@@ -0,0 +1,239 @@
+package com.example.payroll.departmentService;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.hibernate.action.spi.AfterTransactionCompletionProcess;
+import org.hibernate.action.spi.BeforeTransactionCompletionProcess;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.EventSource;
+import org.hibernate.event.spi.EventType;
+import org.hibernate.event.spi.PostDeleteEvent;
+import org.hibernate.event.spi.PostDeleteEventListener;
+import org.hibernate.event.spi.PostInsertEvent;
+import org.hibernate.event.spi.PostInsertEventListener;
+import org.hibernate.event.spi.PostUpdateEvent;
+import org.hibernate.event.spi.PostUpdateEventListener;
+import org.hibernate.persister.entity.EntityPersister;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.example.payroll.employeeService.Employee;
+import com.zaxxer.hikari.HikariDataSource;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.EntityManagerFactory;
+
+/**
+ * Keeps {@code department_role_count} in step with the employee table. Hibernate reports
+ * every employee insert, delete, and change of department or role. The deltas are summed
+ * per transaction and applied just before it commits, as one batched update. A bulk import
+ * chunk therefore costs one extra round trip, and the counters commit or roll back with
+ * the rows they count.
+ *
+ * <p>A (department, role) row is created the first time it is needed, in its own
+ * transaction and at zero, so two transactions adding the first employee of a role cannot
+ * collide on the key at commit: the one that loses the insert finds the row and updates it.
+ * Creates use a small pool of their own, as the writing transaction still holds a connection
+ * from the main pool; taking a second one there could exhaust it under load.
+ * Rows are never deleted while running; the stats skip those at zero.
+ *
+ * <p>Writes that bypass the persistence context, such as native SQL or bulk JPQL, are not
+ * seen. The table is rebuilt from the employee table at startup, so any such drift lasts
+ * only until the next restart.
+ */
+@Component
+@ConditionalOnProperty(name = "payroll.department-stats.counters", havingValue = "true")
+class HeadcountCounters implements PostInsertEventListener, PostUpdateEventListener, PostDeleteEventListener {
+
+    private static final Logger log = LoggerFactory.getLogger(HeadcountCounters.class);
+
+    private static final String UPDATE =
+            "update department_role_count set headcount = headcount + ? where department_id = ? and role = ?";
+    private static final String CREATE =
+            "insert into department_role_count (department_id, role, headcount) values (?, ?, 0)";
+    // Only a key's first employee needs a create, so a couple of connections are plenty
+    private static final int CREATE_POOL_SIZE = 2;
+
+    private final EntityManagerFactory entityManagerFactory;
+    private final DepartmentRoleCountRepository repository;
+    private final TransactionTemplate transactionTemplate;
+    private final HikariDataSource createPool;
+    // Deltas of each open transaction; sessions are single-threaded, the map is shared
+    private final Map<SharedSessionContractImplementor, Map<RoleKey, Long>> pending = new ConcurrentHashMap<>();
+
+    HeadcountCounters(EntityManagerFactory entityManagerFactory, DepartmentRoleCountRepository repository,
+            TransactionTemplate transactionTemplate, DataSourceProperties dataSourceProperties) {
+        this.entityManagerFactory = entityManagerFactory;
+        this.repository = repository;
+        this.transactionTemplate = transactionTemplate;
+        this.createPool = dataSourceProperties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        this.createPool.setPoolName("headcount-counters");
+        this.createPool.setMaximumPoolSize(CREATE_POOL_SIZE);
+        this.createPool.setMinimumIdle(0);
+    }
+
+    @PostConstruct
+    void start() {
+        EventListenerRegistry registry = entityManagerFactory.unwrap(SessionFactoryImplementor.class)
+                .getServiceRegistry().getService(EventListenerRegistry.class);
+        registry.appendListeners(EventType.POST_INSERT, this);
+        registry.appendListeners(EventType.POST_UPDATE, this);
+        registry.appendListeners(EventType.POST_DELETE, this);
+
+        int rows = transactionTemplate.execute(status -> {
+            repository.deleteAllCounts();
+            return repository.countAllEmployees();
+        });
+        log.info("Rebuilt department headcount counters: {} department/role rows", rows);
+    }
+
+    @PreDestroy
+    void stop() {
+        createPool.close();
+    }
+
+    @Override
+    public void onPostInsert(PostInsertEvent event) {
+        if (event.getEntity() instanceof Employee employee) {
+            record(event.getSession(), departmentId(employee.getDepartment()), employee.getRole(), 1);
+        }
+    }
+
+    @Override
+    public void onPostDelete(PostDeleteEvent event) {
+        if (event.getEntity() instanceof Employee employee) {
+            record(event.getSession(), departmentId(employee.getDepartment()), employee.getRole(), -1);
+        }
+    }
+
+    @Override
+    public void onPostUpdate(PostUpdateEvent event) {
+        if (!(event.getEntity() instanceof Employee)) {
+            return;
+        }
+        Object[] oldState = event.getOldState();
+        if (oldState == null) {
+            // Only a detached update without a prior select lacks it; the startup rebuild covers that
+            log.warn("Employee {} updated without its previous state; headcount counters may drift", event.getId());
+            return;
+        }
+        EntityPersister persister = event.getPersister();
+        int department = persister.getPropertyIndex("department");
+        int role = persister.getPropertyIndex("role");
+        Long oldDepartmentId = departmentId(oldState[department]);
+        Long newDepartmentId = departmentId(event.getState()[department]);
+        String oldRole = (String) oldState[role];
+        String newRole = (String) event.getState()[role];
+        if (Objects.equals(oldDepartmentId, newDepartmentId) && Objects.equals(oldRole, newRole)) {
+            return;
+        }
+        record(event.getSession(), oldDepartmentId, oldRole, -1);
+        record(event.getSession(), newDepartmentId, newRole, 1);
+    }
+
+    @Override
+    public boolean requiresPostCommitHandling(EntityPersister persister) {
+        return false;
+    }
+
+    private void record(EventSource session, Long departmentId, String role, long delta) {
+        Map<RoleKey, Long> deltas = pending.get(session);
+        if (deltas == null) {
+            deltas = new HashMap<>();
+            pending.put(session, deltas);
+            // Runs after the final flush, inside the transaction
+            session.getActionQueue().registerProcess((BeforeTransactionCompletionProcess) this::apply);
+            session.getActionQueue().registerProcess(
+                    (AfterTransactionCompletionProcess) (success, s) -> pending.remove(s));
+        }
+        deltas.merge(new RoleKey(departmentId, role == null ? "" : role), delta, Long::sum);
+    }
+
+    private void apply(SharedSessionContractImplementor session) {
+        Map<RoleKey, Long> deltas = pending.remove(session);
+        if (deltas == null) {
+            return;
+        }
+        deltas.values().removeIf(delta -> delta == 0);
+        if (deltas.isEmpty()) {
+            return;
+        }
+        session.doWork(connection -> {
+            List<RoleKey> missing = update(connection, deltas);
+            if (missing.isEmpty()) {
+                return;
+            }
+            create(missing);
+            Map<RoleKey, Long> retry = new HashMap<>();
+            missing.forEach(key -> retry.put(key, deltas.get(key)));
+            if (!update(connection, retry).isEmpty()) {
+                throw new IllegalStateException("Headcount counter rows vanished while being created: " + missing);
+            }
+        });
+    }
+
+    // Returns the keys that have no row yet
+    private static List<RoleKey> update(Connection connection, Map<RoleKey, Long> deltas) throws SQLException {
+        List<RoleKey> keys = new ArrayList<>(deltas.keySet());
+        int[] counts;
+        try (PreparedStatement update = connection.prepareStatement(UPDATE)) {
+            for (RoleKey key : keys) {
+                update.setLong(1, deltas.get(key));
+                update.setLong(2, key.departmentId());
+                update.setString(3, key.role());
+                update.addBatch();
+            }
+            counts = update.executeBatch();
+        }
+        List<RoleKey> missing = new ArrayList<>();
+        for (int i = 0; i < counts.length; i++) {
+            if (counts[i] == 0) {
+                missing.add(keys.get(i));
+            }
+        }
+        return missing;
+    }
+
+    // Committed on a connection from the create pool, so the row is visible to every transaction at once
+    private void create(List<RoleKey> keys) throws SQLException {
+        try (Connection connection = createPool.getConnection();
+                PreparedStatement create = connection.prepareStatement(CREATE)) {
+            connection.setAutoCommit(true);
+            for (RoleKey key : keys) {
+                create.setLong(1, key.departmentId());
+                create.setString(2, key.role());
+                try {
+                    create.executeUpdate();
+                } catch (SQLException e) {
+                    // 23xxx: another transaction created the row first
+                    if (e.getSQLState() == null || !e.getSQLState().startsWith("23")) {
+                        throw e;
+                    }
+                }
+            }
+        }
+    }
+
+    // The state holds the Department or an uninitialized proxy; getId() loads neither
+    private static Long departmentId(Object department) {
+        return department == null ? null : ((Department) department).getId();
+    }
+
+    private record RoleKey(Long departmentId, String role) {
+    }
+}
@@ -0,0 +1,8 @@
+package com.example.payroll.departmentService;
+
+/**
+ * One (department, role) cell of the headcount table. Departments without employees appear
+ * once with a zero or null headcount, so they still show up in the stats.
+ */
+public record RoleCount(Long departmentId, String departmentName, String role, Long headcount) {
+}
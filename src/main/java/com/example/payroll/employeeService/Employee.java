@@ -1,31 +1,72 @@
 package com.example.payroll.employeeService;
 
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+
+import com.example.payroll.CacheConfig;
 import com.example.payroll.departmentService.Department;
 import com.example.payroll.security.User;
 
+import jakarta.persistence.Cacheable;
+import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
+import jakarta.persistence.FetchType;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
 import jakarta.persistence.OneToOne;
+import jakarta.persistence.PrePersist;
+import jakarta.persistence.PreUpdate;
+import jakarta.persistence.Table;
+import jakarta.persistence.Version;
+import lombok.AccessLevel;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.Setter;
+import lombok.ToString;
 
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = CacheConfig.EMPLOYEE_REGION)
 @Data
+@Table(indexes = {
+    @Index(name = "ix_employee_department", columnList = "department_id, id"),
+    @Index(name = "ix_employee_name", columnList = "name_lower, id"),
+    @Index(name = "ix_employee_email", columnList = "email_lower, id"),
+    @Index(name = "ix_employee_role", columnList = "role_lower, id") })
 public class Employee {
 
   private @Id @GeneratedValue Long id;
   private String name;
   private String role;
   private String email;
+  private @Version Long version;
+
+  // Lower-cased copies for indexed case-insensitive and prefix search, derived on every write
+  @Setter(AccessLevel.NONE)
+  @Column(name = "name_lower")
+  private String nameLower;
+  @Setter(AccessLevel.NONE)
+  @Column(name = "email_lower")
+  private String emailLower;
+  @Setter(AccessLevel.NONE)
+  @Column(name = "role_lower")
+  private String roleLower;
 
-  @ManyToOne
+  // The lazy associations stay out of toString, equals and hashCode, which would otherwise
+  // initialize them and fail once the session is closed
+  @ManyToOne(fetch = FetchType.LAZY)
   @JoinColumn(name = "department_id", nullable = false)
+  @ToString.Exclude
+  @EqualsAndHashCode.Exclude
   private Department department;
 
-  @OneToOne
+  @OneToOne(fetch = FetchType.LAZY)
   @JoinColumn(name = "user_id", nullable = false)
+  @ToString.Exclude
+  @EqualsAndHashCode.Exclude
   private User user;
 
   public Employee() {
@@ -36,4 +77,12 @@ public class Employee {
     this.email = email;
   }
 
+  @PrePersist
+  @PreUpdate
+  void lowerSearchColumns() {
+    nameLower = EmployeeSearch.lower(name);
+    emailLower = EmployeeSearch.lower(email);
+    roleLower = EmployeeSearch.lower(role);
+  }
+
 }
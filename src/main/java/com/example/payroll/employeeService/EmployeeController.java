@@ -1,8 +1,17 @@
 package com.example.payroll.employeeService;
 
+import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.linkTo;
+import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.methodOn;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.UUID;
+
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.hateoas.CollectionModel;
 import org.springframework.hateoas.EntityModel;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -10,7 +19,13 @@ import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import com.example.payroll.exceptions.ResourceNotFoundException;
 
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
@@ -19,16 +34,57 @@ import io.swagger.v3.oas.annotations.responses.ApiResponses;
 @RestController
 class EmployeeController {
 
+  static final String APPLICATION_SMILE_VALUE = "application/x-jackson-smile";
+
   @Autowired
   private EmployeeService employeeService;
+  @Autowired
+  private EmployeeImportService importService;
 
-  @Operation(summary = "Get all employees", description = "Fetches a list of all employees.")
+  @Operation(summary = "Get all employees",
+      description = "Fetches a page of employees with ids greater than 'after'. Follow the 'next' link for more.")
     @ApiResponses(value = {
         @ApiResponse(responseCode = "200", description = "Successfully retrieved users")
     })
   @GetMapping("/employees")
-  CollectionModel<EntityModel<EmployeeDTO>> all() {
-    return employeeService.findAll();
+  ResponseEntity<CollectionModel<EntityModel<EmployeeDTO>>> all(@RequestParam(required = false) Long after,
+      @RequestParam(required = false) Integer limit, WebRequest request) {
+    return employeeService.findAll(after, limit, request);
+  }
+
+  @Operation(summary = "Get all employees (compact)",
+      description = "The same page as Smile without links; pass 'next' back as 'after' for the following page.")
+  @GetMapping(value = "/employees", produces = APPLICATION_SMILE_VALUE)
+  ResponseEntity<EmployeePage> allCompact(@RequestParam(required = false) Long after,
+      @RequestParam(required = false) Integer limit, WebRequest request) {
+    return employeeService.findPage(after, limit, request);
+  }
+
+  @Operation(summary = "Search employees",
+      description = "Case-insensitive prefix match on name, email, role and department name; the given fields"
+          + " must all match. Follow the 'next' link for more.")
+  @GetMapping("/employees/search")
+  CollectionModel<EntityModel<EmployeeDTO>> search(@RequestParam(required = false) String name,
+      @RequestParam(required = false) String email, @RequestParam(required = false) String role,
+      @RequestParam(required = false) String department, @RequestParam(required = false) String cursor,
+      @RequestParam(required = false) Integer limit) {
+    return employeeService.search(new EmployeeSearchQuery(name, email, role, department), cursor, limit);
+  }
+
+  @Operation(summary = "Get a department's employees",
+      description = "Fetches a page of the department's employees with ids greater than 'after'.")
+  @GetMapping("/departments/{id}/employees")
+  CollectionModel<EntityModel<EmployeeDTO>> departmentEmployees(@PathVariable Long id,
+      @RequestParam(required = false) Long after, @RequestParam(required = false) Integer limit) {
+    return employeeService.findByDepartment(id, after, limit);
+  }
+
+  @Operation(summary = "Stream all employees", description = "Writes every employee as newline-delimited JSON.")
+  @GetMapping(value = "/employees/stream", produces = MediaType.APPLICATION_NDJSON_VALUE)
+  ResponseEntity<StreamingResponseBody> stream() {
+    return ResponseEntity.ok()
+        .contentType(MediaType.APPLICATION_NDJSON)
+        .body(employeeService::streamAll);
   }
 
   @PostMapping("/employees")
@@ -36,9 +92,33 @@ class EmployeeController {
     return employeeService.newEmployee(newEmployee);   
   }
   
+  @Operation(summary = "Bulk import employees",
+      description = "Accepts a CSV (with header) or NDJSON upload and imports it in the background.")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "202", description = "Import job accepted; poll the Location for progress"),
+        @ApiResponse(responseCode = "413", description = "Upload exceeds payroll.import.max-size")
+    })
+  @PostMapping(value = "/employees/bulk",
+      consumes = { EmployeeImportService.TEXT_CSV_VALUE, MediaType.APPLICATION_NDJSON_VALUE })
+  ResponseEntity<ImportJob> bulkImport(@RequestHeader(HttpHeaders.CONTENT_TYPE) MediaType contentType,
+      InputStream body) throws IOException {
+    ImportJob job = importService.submit(body, contentType);
+    return ResponseEntity
+        .accepted()
+        .location(linkTo(methodOn(EmployeeController.class).importJob(job.getId())).toUri())
+        .body(job);
+  }
+
+  @GetMapping("/employees/bulk/{jobId}")
+  ResponseEntity<ImportJob> importJob(@PathVariable UUID jobId) {
+    return importService.findJob(jobId)
+        .map(ResponseEntity::ok)
+        .orElseThrow(() -> new ResourceNotFoundException("Import job " + jobId + " not found."));
+  }
+
   @GetMapping("/employees/{id}")
-  ResponseEntity<?> one(@PathVariable Long id) {
-      return employeeService.findById(id);    
+  ResponseEntity<?> one(@PathVariable Long id, WebRequest request) {
+      return employeeService.findById(id, request);
   }
 
   @GetMapping("/employees/email/{email}")
@@ -53,8 +133,9 @@ class EmployeeController {
 
 
   @PutMapping("/employees/{id}")
-  ResponseEntity<?> replaceEmployee(@RequestBody EmployeeDTO newEmployee, @PathVariable Long id) {
-    return ResponseEntity.ok(employeeService.save(newEmployee, id));    
+  ResponseEntity<?> replaceEmployee(@RequestBody EmployeeDTO newEmployee, @PathVariable Long id,
+      @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+    return employeeService.save(newEmployee, id, ifMatch);
   }
 
   @DeleteMapping("/employees/{id}")
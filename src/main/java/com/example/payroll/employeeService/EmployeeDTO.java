@@ -1,8 +1,14 @@
 package com.example.payroll.employeeService;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
+
 import lombok.Data;
+import lombok.NoArgsConstructor;
 
+// Reads never carry username or password, so leaving out nulls keeps them off the wire
 @Data
+@NoArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
 public class EmployeeDTO {
     private Long id;
     private String name;
@@ -11,4 +17,13 @@ public class EmployeeDTO {
     private String departmentName;   
     private String username;
     private String password; 
+
+    // Used by the JPQL constructor projections in EmployeeRepository.
+    public EmployeeDTO(Long id, String name, String role, String email, String departmentName) {
+        this.id = id;
+        this.name = name;
+        this.role = role;
+        this.email = email;
+        this.departmentName = departmentName;
+    }
 }
@@ -0,0 +1,141 @@
+package com.example.payroll.employeeService;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+import org.springframework.http.MediaType;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+
+/**
+ * Reads an uploaded import file one line at a time, so memory use does not depend on its size.
+ * CSV files need a header naming the columns (name, role, email, departmentName and optionally
+ * password); quoted fields may contain commas but not line breaks. NDJSON files hold one
+ * EmployeeDTO object per line.
+ */
+class EmployeeImportReader implements Closeable {
+
+    record ImportRow(long line, EmployeeDTO employee, String error) {
+    }
+
+    private final BufferedReader reader;
+    private final boolean csv;
+    private final ObjectReader jsonReader;
+    private Map<String, Integer> columns;
+    private long line;
+
+    private EmployeeImportReader(BufferedReader reader, boolean csv, ObjectMapper objectMapper) {
+        this.reader = reader;
+        this.csv = csv;
+        this.jsonReader = objectMapper.readerFor(EmployeeDTO.class)
+                .without(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES);
+    }
+
+    static EmployeeImportReader open(Path file, MediaType contentType, ObjectMapper objectMapper) throws IOException {
+        boolean csv = EmployeeImportService.TEXT_CSV.isCompatibleWith(contentType);
+        return new EmployeeImportReader(Files.newBufferedReader(file, StandardCharsets.UTF_8), csv, objectMapper);
+    }
+
+    /**
+     * Returns the next non-blank row, or null at the end of the file. Rows that cannot be
+     * parsed are returned with an error instead of an employee.
+     */
+    ImportRow next() throws IOException {
+        String text;
+        do {
+            text = reader.readLine();
+            line++;
+            if (text == null) {
+                return null;
+            }
+        } while (text.isBlank());
+
+        return csv ? csvRow(text) : jsonRow(text);
+    }
+
+    private ImportRow jsonRow(String text) {
+        try {
+            return new ImportRow(line, jsonReader.readValue(text), null);
+        } catch (JsonProcessingException e) {
+            return new ImportRow(line, null, "Malformed JSON: " + e.getOriginalMessage());
+        }
+    }
+
+    private ImportRow csvRow(String text) throws IOException {
+        if (columns == null) {
+            readHeader(text);
+            return next();
+        }
+        List<String> fields = split(text);
+        EmployeeDTO employee = new EmployeeDTO();
+        employee.setName(field(fields, "name"));
+        employee.setRole(field(fields, "role"));
+        employee.setEmail(field(fields, "email"));
+        employee.setDepartmentName(field(fields, "departmentname"));
+        employee.setPassword(field(fields, "password"));
+        return new ImportRow(line, employee, null);
+    }
+
+    private void readHeader(String text) {
+        columns = new HashMap<>();
+        List<String> names = split(text.replace("\uFEFF", ""));
+        for (int i = 0; i < names.size(); i++) {
+            String name = names.get(i).toLowerCase(Locale.ROOT);
+            columns.put(name.equals("department") ? "departmentname" : name, i);
+        }
+    }
+
+    private String field(List<String> fields, String column) {
+        Integer index = columns.get(column);
+        if (index == null || index >= fields.size()) {
+            return null;
+        }
+        String value = fields.get(index);
+        return value.isEmpty() ? null : value;
+    }
+
+    static List<String> split(String text) {
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < text.length() && text.charAt(i + 1) == '"') {
+                    field.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    field.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString().trim());
+                field.setLength(0);
+            } else {
+                field.append(c);
+            }
+        }
+        fields.add(field.toString().trim());
+        return fields;
+    }
+
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+}
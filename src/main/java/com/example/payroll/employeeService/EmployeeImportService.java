@@ -0,0 +1,275 @@
+package com.example.payroll.employeeService;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import org.hibernate.CacheMode;
+import org.hibernate.Session;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.unit.DataSize;
+
+import com.example.payroll.BackgroundThreads;
+import com.example.payroll.departmentService.Department;
+import com.example.payroll.departmentService.DepartmentRepository;
+import com.example.payroll.employeeService.EmployeeImportReader.ImportRow;
+import com.example.payroll.exceptions.PayloadTooLargeException;
+import com.example.payroll.security.PasswordHashingService;
+import com.example.payroll.security.User;
+import com.example.payroll.security.UserRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.EntityManager;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+
+/**
+ * Runs bulk employee imports in the background. Uploads are spooled to a temporary file and
+ * parsed one row at a time; each department is looked up once per import and valid rows are
+ * written in chunks, each in its own transaction, so Hibernate can send them as JDBC batches
+ * with ids taken from pooled sequences. Uploads larger than {@code payroll.import.max-size}
+ * are rejected before a job is created.
+ */
+@Service
+public class EmployeeImportService {
+
+    public static final String TEXT_CSV_VALUE = "text/csv";
+    public static final MediaType TEXT_CSV = MediaType.parseMediaType(TEXT_CSV_VALUE);
+
+    private static final Logger log = LoggerFactory.getLogger(EmployeeImportService.class);
+
+    private static final String DEFAULT_ROLE = "ROLE_USER";
+
+    private final DepartmentRepository departmentRepository;
+    private final UserRepository userRepository;
+    private final PasswordHashingService passwordHashingService;
+    private final Validator validator;
+    private final EntityManager entityManager;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectMapper objectMapper;
+    private final int chunkSize;
+    private final DataSize maxSize;
+    private final ExecutorService executor;
+    private final Cache<UUID, ImportJob> jobs = Caffeine.newBuilder()
+            .maximumSize(1000)
+            .expireAfterAccess(Duration.ofHours(1))
+            .build();
+
+    public EmployeeImportService(DepartmentRepository departmentRepository, UserRepository userRepository,
+            PasswordHashingService passwordHashingService, Validator validator, EntityManager entityManager,
+            TransactionTemplate transactionTemplate, ObjectMapper objectMapper,
+            @Value("${payroll.import.chunk-size:500}") int chunkSize,
+            @Value("${payroll.import.max-size:50MB}") DataSize maxSize,
+            @Value("${payroll.import.concurrency:2}") int concurrency,
+            @Value(BackgroundThreads.VIRTUAL_THREADS_PROPERTY) boolean virtualThreads) {
+        this.departmentRepository = departmentRepository;
+        this.userRepository = userRepository;
+        this.passwordHashingService = passwordHashingService;
+        this.validator = validator;
+        this.entityManager = entityManager;
+        this.transactionTemplate = transactionTemplate;
+        this.objectMapper = objectMapper;
+        this.chunkSize = chunkSize;
+        this.maxSize = maxSize;
+        // Concurrency stays bounded on virtual threads too; it caps the load imports put on the database
+        this.executor = Executors.newFixedThreadPool(concurrency,
+                BackgroundThreads.forBlockingWork("employee-import-", virtualThreads));
+    }
+
+    public ImportJob submit(InputStream body, MediaType contentType) throws IOException {
+        Path file = Files.createTempFile("employee-import-", ".upload");
+        try (OutputStream out = Files.newOutputStream(file)) {
+            spool(body, out);
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(file);
+            throw e;
+        }
+
+        ImportJob job = new ImportJob(UUID.randomUUID());
+        jobs.put(job.getId(), job);
+        executor.execute(() -> run(job, file, contentType));
+        return job;
+    }
+
+    private void spool(InputStream body, OutputStream out) throws IOException {
+        byte[] buffer = new byte[8192];
+        long total = 0;
+        int read;
+        while ((read = body.read(buffer)) != -1) {
+            total += read;
+            if (total > maxSize.toBytes()) {
+                throw new PayloadTooLargeException("Import files are limited to " + maxSize + ".");
+            }
+            out.write(buffer, 0, read);
+        }
+    }
+
+    public Optional<ImportJob> findJob(UUID id) {
+        return Optional.ofNullable(jobs.getIfPresent(id));
+    }
+
+    private void run(ImportJob job, Path file, MediaType contentType) {
+        job.started();
+        try (EmployeeImportReader reader = EmployeeImportReader.open(file, contentType, objectMapper)) {
+            ImportContext context = new ImportContext(passwordHashingService.defaultEmployeePasswordHash());
+            List<ImportRow> chunk = new ArrayList<>(chunkSize);
+            ImportRow row;
+            while ((row = reader.next()) != null) {
+                chunk.add(row);
+                if (chunk.size() == chunkSize) {
+                    writeChunk(job, chunk, context);
+                    chunk.clear();
+                }
+            }
+            if (!chunk.isEmpty()) {
+                writeChunk(job, chunk, context);
+            }
+            job.completed();
+            log.info("Import {} finished: {} imported, {} failed", job.getId(), job.getImportedRows(),
+                    job.getFailedRows());
+        } catch (Exception e) {
+            log.error("Import {} failed", job.getId(), e);
+            job.failed(e.getMessage());
+        } finally {
+            try {
+                Files.deleteIfExists(file);
+            } catch (IOException e) {
+                log.warn("Could not delete import file {}", file, e);
+            }
+        }
+    }
+
+    private void writeChunk(ImportJob job, List<ImportRow> chunk, ImportContext context) {
+        List<ImportRow> rows = new ArrayList<>(chunk.size());
+        List<CompletableFuture<String>> passwordHashes = new ArrayList<>(chunk.size());
+
+        Set<String> emails = new HashSet<>();
+        for (ImportRow row : chunk) {
+            if (row.employee() != null && row.employee().getEmail() != null) {
+                emails.add(row.employee().getEmail());
+            }
+        }
+        Set<String> existing = emails.isEmpty() ? Set.of() : userRepository.findExistingUsernames(emails);
+
+        // Everything that can reject a row is checked, and every password hashed, before the
+        // transaction starts, so a chunk only holds a connection while it is being written.
+        // Rows with their own password are hashed in parallel on the hashing pool.
+        for (ImportRow row : chunk) {
+            String error = row.error() != null ? row.error() : validate(row.employee(), context, existing);
+            if (error != null) {
+                job.rowFailed(row.line(), error);
+                continue;
+            }
+            EmployeeDTO employee = row.employee();
+            context.seenEmails.add(employee.getEmail());
+            rows.add(row);
+            passwordHashes.add(passwordHash(employee, context));
+        }
+        if (rows.isEmpty()) {
+            return;
+        }
+        List<User> users = new ArrayList<>(rows.size());
+        for (int i = 0; i < rows.size(); i++) {
+            users.add(new User(rows.get(i).employee().getEmail(), passwordHashes.get(i).join(), DEFAULT_ROLE));
+        }
+
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                // Imported rows are not read back soon; keep them out of the second-level cache
+                entityManager.unwrap(Session.class).setCacheMode(CacheMode.IGNORE);
+                for (int i = 0; i < rows.size(); i++) {
+                    EmployeeDTO dto = rows.get(i).employee();
+                    User user = users.get(i);
+                    entityManager.persist(user);
+
+                    Employee employee = new Employee(dto.getName(), dto.getRole(), dto.getEmail());
+                    Long departmentId = department(dto.getDepartmentName(), context).orElseThrow().getId();
+                    employee.setDepartment(entityManager.getReference(Department.class, departmentId));
+                    employee.setUser(user);
+                    entityManager.persist(employee);
+                }
+                entityManager.flush();
+                entityManager.clear();
+            });
+            job.rowsImported(rows.size());
+        } catch (RuntimeException e) {
+            log.warn("Import {} rejected a chunk of {} rows", job.getId(), rows.size(), e);
+            for (ImportRow row : rows) {
+                job.rowFailed(row.line(), "Chunk rejected by the database: " + e.getMessage());
+            }
+        }
+    }
+
+    private String validate(EmployeeDTO employee, ImportContext context, Set<String> existing) {
+        if (employee.getName() == null || employee.getName().isBlank()) {
+            return "name is required";
+        }
+        if (employee.getEmail() == null || employee.getEmail().isBlank()) {
+            return "email is required";
+        }
+        if (department(employee.getDepartmentName(), context).isEmpty()) {
+            return "Department with Name " + employee.getDepartmentName() + " not found.";
+        }
+        if (existing.contains(employee.getEmail()) || context.seenEmails.contains(employee.getEmail())) {
+            return "Username already exists: " + employee.getEmail();
+        }
+        // The email becomes the username, which must pass User's own constraints
+        Set<ConstraintViolation<User>> violations = validator.validateValue(User.class, "username",
+                employee.getEmail());
+        if (!violations.isEmpty()) {
+            return "email: " + violations.iterator().next().getMessage();
+        }
+        return null;
+    }
+
+    private Optional<Department> department(String name, ImportContext context) {
+        if (name == null) {
+            return Optional.empty();
+        }
+        return context.departments.computeIfAbsent(name, departmentRepository::findByName);
+    }
+
+    private CompletableFuture<String> passwordHash(EmployeeDTO employee, ImportContext context) {
+        String password = employee.getPassword();
+        return password == null || password.isBlank()
+                ? CompletableFuture.completedFuture(context.defaultPasswordHash)
+                : passwordHashingService.encode(password);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdownNow();
+    }
+
+    private static final class ImportContext {
+        private final String defaultPasswordHash;
+        private final Set<String> seenEmails = new HashSet<>();
+        private final Map<String, Optional<Department>> departments = new HashMap<>();
+
+        private ImportContext(String defaultPasswordHash) {
+            this.defaultPasswordHash = defaultPasswordHash;
+        }
+    }
+}
@@ -2,12 +2,11 @@ package com.example.payroll.employeeService;
 
 import com.example.payroll.departmentService.Department;
 import com.example.payroll.security.User;
-import org.springframework.security.crypto.password.PasswordEncoder;
 import com.example.payroll.security.UserRepository;
 
 public class EmployeeMapper {
 
-    public static Employee toEntity(EmployeeDTO employeeDTO, Department dep, PasswordEncoder passwordEncoder, UserRepository userRepository) {
+    public static Employee toEntity(EmployeeDTO employeeDTO, Department dep, String passwordHash, UserRepository userRepository) {
         Employee employee = new Employee();
         employee.setName(employeeDTO.getName());
         employee.setRole(employeeDTO.getRole());
@@ -15,7 +14,7 @@ public class EmployeeMapper {
         employee.setDepartment(dep);
 
         String username = employeeDTO.getEmail();
-        String password = passwordEncoder.encode("123456");
+        String password = passwordHash;
         String role = "ROLE_USER";
 
         User user = new User(username, password, role);
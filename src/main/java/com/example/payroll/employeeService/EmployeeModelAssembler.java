@@ -2,18 +2,41 @@ package com.example.payroll.employeeService;
 
 import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.*;
 
+import java.util.ArrayList;
+import java.util.List;
+
+import org.springframework.hateoas.CollectionModel;
 import org.springframework.hateoas.EntityModel;
 import org.springframework.hateoas.server.RepresentationModelAssembler;
 import org.springframework.stereotype.Component;
 
+import com.example.payroll.ItemLinks;
+
 @Component
 class EmployeeModelAssembler implements RepresentationModelAssembler<EmployeeDTO, EntityModel<EmployeeDTO>> {
 
   @Override
   public EntityModel<EmployeeDTO> toModel(EmployeeDTO employee) {
+    return toModel(employee, links());
+  }
+
+  // Resolves the links once for the whole collection rather than once per element
+  @Override
+  public CollectionModel<EntityModel<EmployeeDTO>> toCollectionModel(Iterable<? extends EmployeeDTO> employees) {
+    ItemLinks links = links();
+    List<EntityModel<EmployeeDTO>> models = new ArrayList<>();
+    for (EmployeeDTO employee : employees) {
+      models.add(toModel(employee, links));
+    }
+    return CollectionModel.of(models);
+  }
+
+  private static EntityModel<EmployeeDTO> toModel(EmployeeDTO employee, ItemLinks links) {
+    return EntityModel.of(employee, links.self(employee.getId()), links.collection());
+  }
 
-    return EntityModel.of(employee, //
-        linkTo(methodOn(EmployeeController.class).one(employee.getId())).withSelfRel(),
-        linkTo(methodOn(EmployeeController.class).all()).withRel("employees"));
+  private static ItemLinks links() {
+    return ItemLinks.of(linkTo(methodOn(EmployeeController.class).one(null, null)),
+        linkTo(methodOn(EmployeeController.class).all(null, null, null)).withRel("employees"));
   }
-}
\ No newline at end of file
+}
@@ -0,0 +1,13 @@
+package com.example.payroll.employeeService;
+
+import java.util.List;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+/**
+ * Link-free page of employees for compact media types. {@code next} is the cursor to pass as
+ * {@code after} for the following page, absent on the last one.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record EmployeePage(List<EmployeeDTO> employees, Long next) {
+}
@@ -1,11 +1,79 @@
 package com.example.payroll.employeeService;
 
+import static org.hibernate.jpa.HibernateHints.HINT_CACHEABLE;
+import static org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE;
+
+import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import jakarta.persistence.QueryHint;
 
 public interface EmployeeRepository extends JpaRepository<Employee, Long> {
 
-    public Optional<Employee> findByEmail(String email);
-    public Optional<Employee> findByName(String name);
-}
\ No newline at end of file
+    // Reads that only feed EmployeeDTO select its columns directly, so listing n employees
+    // is one statement instead of 1 + n department and user lookups.
+    String DTO_SELECT = "select new com.example.payroll.employeeService.EmployeeDTO("
+            + "e.id, e.name, e.role, e.email, d.name) from Employee e left join e.department d ";
+
+    @Override
+    @EntityGraph(attributePaths = "department")
+    public Optional<Employee> findById(Long id);
+
+    // Keyset page: everything after the cursor id, in id order. Each row is the DTO followed by
+    // the employee's version and its department's id and version, which the page's tag is built from.
+    @Query("select new com.example.payroll.employeeService.EmployeeDTO(e.id, e.name, e.role, e.email, d.name), "
+            + "e.version, d.id, d.version from Employee e left join e.department d where e.id > :after order by e.id")
+    public List<Object[]> findVersionedDtoPage(@Param("after") Long after, Limit limit);
+
+    // Served by ix_employee_department: an index range from the cursor, in id order
+    @Query(DTO_SELECT + "where d.id = :departmentId and e.id > :after order by e.id")
+    public List<EmployeeDTO> findDtoPageByDepartment(@Param("departmentId") Long departmentId,
+            @Param("after") Long after, Limit limit);
+
+    // Exact matches go through the lower-cased index; names and emails are not unique, so the lowest id wins.
+    @Query(DTO_SELECT + "where e.emailLower = :emailLower and e.email = :email order by e.id")
+    public List<EmployeeDTO> findDtosByEmail(@Param("emailLower") String emailLower, @Param("email") String email,
+            Limit limit);
+
+    @Query(DTO_SELECT + "where e.nameLower = :nameLower and e.name = :name order by e.id")
+    public List<EmployeeDTO> findDtosByName(@Param("nameLower") String nameLower, @Param("name") String name,
+            Limit limit);
+
+    default Optional<EmployeeDTO> findFirstDtoByEmail(String email) {
+        return findDtosByEmail(EmployeeSearch.lower(email), email, Limit.of(1)).stream().findFirst();
+    }
+
+    default Optional<EmployeeDTO> findFirstDtoByName(String name) {
+        return findDtosByName(EmployeeSearch.lower(name), name, Limit.of(1)).stream().findFirst();
+    }
+
+    // Rows written before the search columns existed
+    @Transactional
+    @Modifying
+    @Query("update Employee e set e.nameLower = lower(e.name), e.emailLower = lower(e.email), e.roleLower = lower(e.role) "
+            + "where (e.nameLower is null and e.name is not null) or (e.emailLower is null and e.email is not null) "
+            + "or (e.roleLower is null and e.role is not null)")
+    public int backfillSearchColumns();
+
+    // Lets a conditional GET answer 304 without loading the employee; cached until an employee
+    // or department is written.
+    @QueryHints(@QueryHint(name = HINT_CACHEABLE, value = "true"))
+    @Query("select new com.example.payroll.employeeService.EmployeeVersion(e.version, d.version, e.user.id) "
+            + "from Employee e join e.department d where e.id = :id")
+    public Optional<EmployeeVersion> findVersionById(@Param("id") Long id);
+
+    // Must be consumed inside a transaction and closed by the caller.
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = "500"))
+    @Query(DTO_SELECT + "order by e.id")
+    public Stream<EmployeeDTO> streamAllDtos();
+}
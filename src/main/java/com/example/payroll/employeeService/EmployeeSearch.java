@@ -0,0 +1,158 @@
+package com.example.payroll.employeeService;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import com.example.payroll.exceptions.ValidationException;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.TypedQuery;
+
+/**
+ * Prefix search over the lower-cased name, email and role columns. The first filter present,
+ * in that order, drives the query: its {@code (column, id)} index yields rows already sorted,
+ * the other filters are checked on those rows, and the page is a keyset range of that index.
+ * A page therefore reads about {@code limit} index entries however large the table is, as
+ * long as the driving prefix is not much broader than the other filters. A search by
+ * department alone resolves the matching departments first and walks
+ * {@code ix_employee_department}.
+ *
+ * <p>The cursor is opaque to clients: base64url of {@code "<id>:<sort key>"} for the last row.
+ * Department names are not unique, so the department walk is keyed by {@code d.id}, which is
+ * selected next to each row.
+ */
+@Component
+class EmployeeSearch {
+
+    private static final Logger log = LoggerFactory.getLogger(EmployeeSearch.class);
+
+    // The DTO plus the department id the department-only walk sorts and pages by
+    private static final String SELECT = "select new com.example.payroll.employeeService.EmployeeDTO("
+            + "e.id, e.name, e.role, e.email, d.name), d.id from Employee e left join e.department d ";
+
+    private final EmployeeRepository repository;
+    private final EntityManager entityManager;
+
+    EmployeeSearch(EmployeeRepository repository, EntityManager entityManager) {
+        this.repository = repository;
+        this.entityManager = entityManager;
+    }
+
+    record Page(List<EmployeeDTO> employees, String next) {
+    }
+
+    @PostConstruct
+    void backfill() {
+        int rows = repository.backfillSearchColumns();
+        if (rows > 0) {
+            log.info("Filled search columns for {} existing employees", rows);
+        }
+    }
+
+    static String lower(String value) {
+        return value == null ? null : value.toLowerCase(Locale.ROOT);
+    }
+
+    Page search(EmployeeSearchQuery query, String cursor, int limit) {
+        if (query.isEmpty()) {
+            throw new ValidationException("Give at least one of name, email, role or department.");
+        }
+
+        StringBuilder jpql = new StringBuilder(SELECT).append("where 1 = 1");
+        Map<String, Object> parameters = new HashMap<>();
+        String sortColumn = null;
+        for (String[] filter : new String[][] {
+                { "e.nameLower", query.name() }, { "e.emailLower", query.email() }, { "e.roleLower", query.role() } }) {
+            if (!EmployeeSearchQuery.isBlank(filter[1])) {
+                String parameter = "p" + parameters.size();
+                jpql.append(" and ").append(filter[0]).append(" like :").append(parameter).append(" escape '\\'");
+                parameters.put(parameter, likePrefix(filter[1]));
+                if (sortColumn == null) {
+                    sortColumn = filter[0];
+                }
+            }
+        }
+
+        if (!EmployeeSearchQuery.isBlank(query.department())) {
+            List<Long> departmentIds = entityManager.createQuery(
+                    "select d.id from Department d where lower(d.name) like :prefix escape '\\'", Long.class)
+                    .setParameter("prefix", likePrefix(query.department()))
+                    .getResultList();
+            if (departmentIds.isEmpty()) {
+                return new Page(List.of(), null);
+            }
+            jpql.append(" and d.id in :departmentIds");
+            parameters.put("departmentIds", departmentIds);
+        }
+        String sortKey = sortColumn == null ? "d.id" : sortColumn;
+
+        if (cursor != null) {
+            String[] position = decode(cursor);
+            // Written as a range on the sort key so the index seek starts at the cursor
+            jpql.append(" and ").append(sortKey).append(" >= :afterKey and (")
+                    .append(sortKey).append(" > :afterKey or e.id > :afterId)");
+            parameters.put("afterKey", sortColumn == null ? parseId(position[1]) : position[1]);
+            parameters.put("afterId", parseId(position[0]));
+        }
+        jpql.append(" order by ").append(sortKey).append(", e.id");
+
+        TypedQuery<Object[]> typedQuery = entityManager.createQuery(jpql.toString(), Object[].class)
+                .setMaxResults(limit);
+        parameters.forEach(typedQuery::setParameter);
+        List<Object[]> rows = typedQuery.getResultList();
+        List<EmployeeDTO> employees = rows.stream().map(row -> (EmployeeDTO) row[0]).toList();
+
+        String next = null;
+        if (rows.size() == limit) {
+            Object[] lastRow = rows.get(rows.size() - 1);
+            EmployeeDTO last = (EmployeeDTO) lastRow[0];
+            next = encode(last.getId(), sortColumn == null ? String.valueOf(lastRow[1])
+                    : lower(switch (sortColumn) {
+                        case "e.nameLower" -> last.getName();
+                        case "e.emailLower" -> last.getEmail();
+                        default -> last.getRole();
+                    }));
+        }
+        return new Page(employees, next);
+    }
+
+    private static String likePrefix(String value) {
+        String escaped = lower(value.trim()).replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+        return escaped + "%";
+    }
+
+    private static String encode(Long id, String key) {
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString((id + ":" + key).getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static String[] decode(String cursor) {
+        try {
+            String position = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separator = position.indexOf(':');
+            if (separator > 0) {
+                return new String[] { position.substring(0, separator), position.substring(separator + 1) };
+            }
+        } catch (IllegalArgumentException e) {
+            // reported below
+        }
+        throw new ValidationException("Invalid search cursor.");
+    }
+
+    private static Long parseId(String value) {
+        try {
+            return Long.valueOf(value);
+        } catch (NumberFormatException e) {
+            throw new ValidationException("Invalid search cursor.");
+        }
+    }
+}
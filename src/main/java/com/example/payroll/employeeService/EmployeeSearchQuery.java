@@ -0,0 +1,16 @@
+package com.example.payroll.employeeService;
+
+/**
+ * Filters for {@code GET /employees/search}. Each field is an optional, case-insensitive
+ * prefix; the fields that are present must all match.
+ */
+public record EmployeeSearchQuery(String name, String email, String role, String department) {
+
+    boolean isEmpty() {
+        return isBlank(name) && isBlank(email) && isBlank(role) && isBlank(department);
+    }
+
+    static boolean isBlank(String value) {
+        return value == null || value.isBlank();
+    }
+}
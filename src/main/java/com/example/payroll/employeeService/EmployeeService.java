@@ -1,15 +1,23 @@
 package com.example.payroll.employeeService;
 
+import java.io.IOException;
+import java.io.OutputStream;
+
 import org.springframework.hateoas.CollectionModel;
 import org.springframework.hateoas.EntityModel;
 import org.springframework.http.ResponseEntity;
+import org.springframework.web.context.request.WebRequest;
 
 public interface EmployeeService {
-    CollectionModel<EntityModel<EmployeeDTO>> findAll(); 
+    ResponseEntity<CollectionModel<EntityModel<EmployeeDTO>>> findAll(Long after, Integer limit, WebRequest request);
+    ResponseEntity<EmployeePage> findPage(Long after, Integer limit, WebRequest request);
+    CollectionModel<EntityModel<EmployeeDTO>> findByDepartment(Long departmentId, Long after, Integer limit);
+    CollectionModel<EntityModel<EmployeeDTO>> search(EmployeeSearchQuery query, String cursor, Integer limit);
+    void streamAll(OutputStream out) throws IOException;
     ResponseEntity<?> newEmployee(EmployeeDTO newEmployee);
-    ResponseEntity<?> findById(Long id);
+    ResponseEntity<?> findById(Long id, WebRequest request);
     EntityModel<EmployeeDTO> findByEmail(String email);
-    ResponseEntity<?> save(EmployeeDTO employee, Long id); 
+    ResponseEntity<?> save(EmployeeDTO employee, Long id, String ifMatch);
     ResponseEntity<?> deleteById(Long id); 
     EntityModel<EmployeeDTO> findByName(String name);
 }
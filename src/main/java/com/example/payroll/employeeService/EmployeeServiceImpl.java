@@ -3,33 +3,54 @@ package com.example.payroll.employeeService;
 import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.linkTo;
 import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.methodOn;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Iterator;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.Objects;
+import java.util.stream.Stream;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Limit;
 import org.springframework.hateoas.CollectionModel;
 import org.springframework.hateoas.EntityModel;
 import org.springframework.hateoas.IanaLinkRelations;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
-import org.springframework.security.core.Authentication;
-import org.springframework.security.core.context.SecurityContextHolder;
-import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.context.request.WebRequest;
 
+import com.example.payroll.ETags;
+import com.example.payroll.VersionSummary;
 import com.example.payroll.departmentService.Department;
 import com.example.payroll.departmentService.DepartmentRepository;
+import com.example.payroll.departmentService.DepartmentController;
+import com.example.payroll.exceptions.PreconditionFailedException;
 import com.example.payroll.exceptions.ResourceNotFoundException;
-import com.example.payroll.security.User;
+import com.example.payroll.security.AuthenticatedUser;
+import com.example.payroll.security.PasswordHashingService;
 import com.example.payroll.security.UserRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SequenceWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
 
+import io.micrometer.core.annotation.Timed;
+
+// Every method is timed as payroll.employees, tagged with the method name and any exception
 @Service
+@Timed(value = "payroll.employees", description = "EmployeeService calls")
 public class EmployeeServiceImpl implements EmployeeService {
 
     private static final Logger log = LoggerFactory.getLogger(EmployeeServiceImpl.class);
 
+    static final int DEFAULT_PAGE_SIZE = 100;
+    static final int MAX_PAGE_SIZE = 1000;
+
     @Autowired
     private EmployeeRepository repository;
     @Autowired
@@ -39,16 +60,121 @@ public class EmployeeServiceImpl implements EmployeeService {
     @Autowired
     private UserRepository userRepository;
     @Autowired
-    private PasswordEncoder passwordEncoder;
+    private PasswordHashingService passwordHashingService;
+    @Autowired
+    private ObjectMapper objectMapper;
+    @Autowired
+    private EmployeeSearch employeeSearch;
 
     @Override
-    public CollectionModel<EntityModel<EmployeeDTO>> findAll() {
-        List<EntityModel<EmployeeDTO>> employees = repository.findAll().stream()
-                .map(EmployeeMapper::toDTO)
-                .map(assembler::toModel)
-                .collect(Collectors.toList());
+    public ResponseEntity<CollectionModel<EntityModel<EmployeeDTO>>> findAll(Long after, Integer limit,
+            WebRequest request) {
+        int pageSize = pageSize(limit);
+        VersionedPage page = loadPage(after, pageSize);
+        String etag = page.versions().etag();
+        if (request.checkNotModified(etag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).varyBy(HttpHeaders.ACCEPT).build();
+        }
+
+        CollectionModel<EntityModel<EmployeeDTO>> model = assembler.toCollectionModel(page.page().employees())
+                .add(linkTo(methodOn(EmployeeController.class).all(after, pageSize, null)).withSelfRel());
 
-        return CollectionModel.of(employees, linkTo(methodOn(EmployeeController.class).all()).withSelfRel());
+        if (page.page().next() != null) {
+            model.add(linkTo(methodOn(EmployeeController.class).all(page.page().next(), pageSize, null)).withRel(IanaLinkRelations.NEXT));
+        }
+        return ResponseEntity.ok().eTag(etag).varyBy(HttpHeaders.ACCEPT).body(model);
+    }
+
+    @Override
+    public ResponseEntity<EmployeePage> findPage(Long after, Integer limit, WebRequest request) {
+        VersionedPage page = loadPage(after, pageSize(limit));
+        String etag = page.versions().etag("smile");
+        if (request.checkNotModified(etag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).varyBy(HttpHeaders.ACCEPT).build();
+        }
+        return ResponseEntity.ok().eTag(etag).varyBy(HttpHeaders.ACCEPT).body(page.page());
+    }
+
+    private record VersionedPage(EmployeePage page, VersionSummary versions) {
+    }
+
+    // The tag covers only this page's rows, so it comes with the page's own statement: a
+    // revalidation costs the same index range as the page, whatever the size of the table.
+    private VersionedPage loadPage(Long after, int pageSize) {
+        List<Object[]> rows = repository.findVersionedDtoPage(after == null ? 0L : after, Limit.of(pageSize));
+
+        List<EmployeeDTO> employees = new ArrayList<>(rows.size());
+        long checksum = 0;
+        for (Object[] row : rows) {
+            EmployeeDTO employee = (EmployeeDTO) row[0];
+            employees.add(employee);
+            // Hashes the department's id and version next to the employee's, since the list shows
+            // department names. A plain sum of versions misses moves: leaving a department at
+            // version b + 1 for one at version b adds 1 to the employee's version and takes 1 off.
+            checksum = 31 * checksum + Objects.hash(employee.getId(), row[1], row[2], row[3]);
+        }
+
+        // A full page means there may be more rows; the last id becomes the next cursor.
+        Long last = employees.isEmpty() ? null : employees.get(employees.size() - 1).getId();
+        Long next = employees.size() == pageSize ? last : null;
+        return new VersionedPage(new EmployeePage(employees, next),
+                new VersionSummary((long) employees.size(), checksum, last == null ? 0L : last));
+    }
+
+    @Override
+    public CollectionModel<EntityModel<EmployeeDTO>> findByDepartment(Long departmentId, Long after, Integer limit) {
+        departmentRepository.findById(departmentId)
+                .orElseThrow(() -> new ResourceNotFoundException("Department with ID " + departmentId + " not found"));
+
+        int pageSize = pageSize(limit);
+        List<EmployeeDTO> page = repository.findDtoPageByDepartment(departmentId, after == null ? 0L : after,
+                Limit.of(pageSize));
+
+        CollectionModel<EntityModel<EmployeeDTO>> model = assembler.toCollectionModel(page)
+                .add(linkTo(methodOn(EmployeeController.class).departmentEmployees(departmentId, after, pageSize)).withSelfRel())
+                .add(linkTo(methodOn(DepartmentController.class).one(departmentId, null)).withRel("department"));
+
+        if (page.size() == pageSize) {
+            Long cursor = page.get(page.size() - 1).getId();
+            model.add(linkTo(methodOn(EmployeeController.class).departmentEmployees(departmentId, cursor, pageSize))
+                    .withRel(IanaLinkRelations.NEXT));
+        }
+        return model;
+    }
+
+    @Override
+    public CollectionModel<EntityModel<EmployeeDTO>> search(EmployeeSearchQuery query, String cursor, Integer limit) {
+        int pageSize = pageSize(limit);
+        EmployeeSearch.Page page = employeeSearch.search(query, cursor, pageSize);
+
+        CollectionModel<EntityModel<EmployeeDTO>> model = assembler.toCollectionModel(page.employees())
+                .add(linkTo(methodOn(EmployeeController.class).search(query.name(), query.email(), query.role(),
+                        query.department(), cursor, pageSize)).withSelfRel());
+        if (page.next() != null) {
+            model.add(linkTo(methodOn(EmployeeController.class).search(query.name(), query.email(), query.role(),
+                    query.department(), page.next(), pageSize)).withRel(IanaLinkRelations.NEXT));
+        }
+        return model;
+    }
+
+    private static int pageSize(Integer limit) {
+        return limit == null ? DEFAULT_PAGE_SIZE : Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public void streamAll(OutputStream out) throws IOException {
+        try (Stream<EmployeeDTO> employees = repository.streamAllDtos();
+                SequenceWriter writer = objectMapper.writerFor(EmployeeDTO.class)
+                        .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE)
+                        .withRootValueSeparator("\n")
+                        .writeValues(out)) {
+            // Projections are not managed, so the persistence context stays empty however many rows pass.
+            Iterator<EmployeeDTO> iterator = employees.iterator();
+            while (iterator.hasNext()) {
+                writer.write(iterator.next());
+            }
+        }
     }
 
     @Override
@@ -56,7 +182,8 @@ public class EmployeeServiceImpl implements EmployeeService {
         Department dep = departmentRepository.findByName(newEmployee.getDepartmentName())
                 .orElseThrow(() -> new ResourceNotFoundException("Department with Name " + newEmployee.getDepartmentName() + " not found."));
 
-        Employee employee = EmployeeMapper.toEntity(newEmployee, dep, passwordEncoder, userRepository);
+        Employee employee = EmployeeMapper.toEntity(newEmployee, dep,
+                passwordHashingService.defaultEmployeePasswordHash(), userRepository);
         employee = repository.save(employee);
 
         EntityModel<EmployeeDTO> entityModel = assembler.toModel(EmployeeMapper.toDTO(employee));
@@ -67,58 +194,89 @@ public class EmployeeServiceImpl implements EmployeeService {
     }
 
     @Override
-    public ResponseEntity<?> findById(Long id) {
-        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
-        String username = authentication.getName();
+    public ResponseEntity<?> findById(Long id, WebRequest request) {
+        AuthenticatedUser authenticatedUser = AuthenticatedUser.current();
 
-        User authenticatedUser = userRepository.findByUsername(username)
-                .orElseThrow(() -> new RuntimeException("User not found"));
+        // A revalidation is answered from the version columns alone, after the same access check
+        if (request.getHeader(HttpHeaders.IF_NONE_MATCH) != null) {
+            EmployeeVersion current = repository.findVersionById(id)
+                    .orElseThrow(() -> new ResourceNotFoundException("Employee with ID " + id + " not found."));
+            if (!canRead(authenticatedUser, current.userId())) {
+                return forbidden();
+            }
+            if (request.checkNotModified(current.etag())) {
+                // checkNotModified has already written the ETag header
+                return ResponseEntity.status(HttpStatus.NOT_MODIFIED).build();
+            }
+        }
 
         Employee employee = repository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Employee with ID " + id + " not found."));
 
-        if (!authenticatedUser.getRole().equals("ROLE_ADMIN")
-                && !authenticatedUser.getId().equals(employee.getUser().getId())) {
-            return ResponseEntity.status(HttpStatus.FORBIDDEN).body("You are not allowed to access this data.");
+        // getUser().getId() reads the foreign key from the lazy proxy without loading the user
+        if (!canRead(authenticatedUser, employee.getUser().getId())) {
+            return forbidden();
         }
 
-        return ResponseEntity.ok(assembler.toModel(EmployeeMapper.toDTO(employee)));
+        return ResponseEntity.ok()
+                .eTag(EmployeeVersion.of(employee).etag())
+                .body(assembler.toModel(EmployeeMapper.toDTO(employee)));
+    }
+
+    private static boolean canRead(AuthenticatedUser authenticatedUser, Long ownerId) {
+        return authenticatedUser.isAdmin() || authenticatedUser.getId().equals(ownerId);
+    }
+
+    private static ResponseEntity<?> forbidden() {
+        return ResponseEntity.status(HttpStatus.FORBIDDEN).body("You are not allowed to access this data.");
     }
 
     @Override
     public EntityModel<EmployeeDTO> findByEmail(String email) {
-        Employee employee = repository.findByEmail(email)
+        EmployeeDTO employee = repository.findFirstDtoByEmail(email)
                 .orElseThrow(() -> new ResourceNotFoundException("Employee with EMAIL " + email + " not found."));
-        return assembler.toModel(EmployeeMapper.toDTO(employee));
+        return assembler.toModel(employee);
     }
 
     @Override
     public EntityModel<EmployeeDTO> findByName(String name) {
-        Employee employee = repository.findByName(name)
+        EmployeeDTO employee = repository.findFirstDtoByName(name)
                 .orElseThrow(() -> new ResourceNotFoundException("Employee with NAME " + name + " not found."));
-        return assembler.toModel(EmployeeMapper.toDTO(employee));
+        return assembler.toModel(employee);
     }
 
     @Override
-    public ResponseEntity<?> save(EmployeeDTO newEmployee, Long id) {
+    public ResponseEntity<?> save(EmployeeDTO newEmployee, Long id, String ifMatch) {
         Department dep = departmentRepository.findByName(newEmployee.getDepartmentName())
                 .orElseThrow(() -> new ResourceNotFoundException("Department with Name " + newEmployee.getDepartmentName() + " not found."));
 
-        Employee newEmploye = EmployeeMapper.toEntity(newEmployee, dep, passwordEncoder, userRepository);
         Employee updatedEmployee = repository.findById(id)
                 .map(employee -> {
+                    // The version read here is the one Hibernate checks on flush, so a write
+                    // that lands in between still fails as an optimistic lock conflict.
+                    if (!ETags.ifMatch(ifMatch, EmployeeVersion.of(employee).etag())) {
+                        throw new PreconditionFailedException("Employee with ID " + id + " has been modified.");
+                    }
                     employee.setName(newEmployee.getName());
                     employee.setRole(newEmployee.getRole());
                     employee.setEmail(newEmployee.getEmail());
                     employee.setDepartment(dep);
                     return repository.save(employee);
                 })
-                .orElseGet(() -> repository.save(newEmploye));
+                // Only a replacement for a missing id creates a user
+                .orElseGet(() -> {
+                    if (ifMatch != null) {
+                        throw new PreconditionFailedException("Employee with ID " + id + " does not exist.");
+                    }
+                    return repository.save(EmployeeMapper.toEntity(newEmployee, dep,
+                        passwordHashingService.defaultEmployeePasswordHash(), userRepository));
+                });
 
         EntityModel<EmployeeDTO> entityModel = assembler.toModel(EmployeeMapper.toDTO(updatedEmployee));
 
         return ResponseEntity
                 .created(entityModel.getRequiredLink(IanaLinkRelations.SELF).toUri())
+                .eTag(EmployeeVersion.of(updatedEmployee).etag())
                 .body(entityModel);
     }
 
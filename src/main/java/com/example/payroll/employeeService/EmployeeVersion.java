@@ -0,0 +1,19 @@
+package com.example.payroll.employeeService;
+
+import com.example.payroll.ETags;
+
+/**
+ * What a conditional read needs about an employee: the versions its representation is built
+ * from, since it embeds the department name, and the owning user for the access check.
+ */
+public record EmployeeVersion(Long version, Long departmentVersion, Long userId) {
+
+    static EmployeeVersion of(Employee employee) {
+        return new EmployeeVersion(employee.getVersion(), employee.getDepartment().getVersion(),
+                employee.getUser().getId());
+    }
+
+    public String etag() {
+        return ETags.of(version, departmentVersion);
+    }
+}
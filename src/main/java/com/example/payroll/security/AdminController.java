@@ -1,24 +1,66 @@
 package com.example.payroll.security;
 
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 
+import org.springframework.cache.caffeine.CaffeineCache;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
+import com.example.payroll.MailDispatcher;
+import com.example.payroll.MailDispatcher.MailStats;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+
 @RestController
 @RequestMapping("/admin")
 public class AdminController {
 
     private final UserRepository userRepository;
+    private final CaffeineCacheManager cacheManager;
+    private final MailDispatcher mailDispatcher;
+    private final LoginThrottle loginThrottle;
 
-    public AdminController(UserRepository userRepository) {
+    public AdminController(UserRepository userRepository, CaffeineCacheManager cacheManager,
+            MailDispatcher mailDispatcher, LoginThrottle loginThrottle) {
         this.userRepository = userRepository;
+        this.cacheManager = cacheManager;
+        this.mailDispatcher = mailDispatcher;
+        this.loginThrottle = loginThrottle;
     }
 
     @GetMapping("/users")
     public ResponseEntity<List<User>> getAllUsers() {
         return ResponseEntity.ok(userRepository.findAll());
     }
+
+    @GetMapping("/caches")
+    public ResponseEntity<Map<String, Map<String, Object>>> getCacheStatistics() {
+        Map<String, Map<String, Object>> caches = new LinkedHashMap<>();
+        for (String name : cacheManager.getCacheNames()) {
+            CaffeineCache cache = (CaffeineCache) cacheManager.getCache(name);
+            CacheStats stats = cache.getNativeCache().stats();
+            Map<String, Object> entry = new LinkedHashMap<>();
+            entry.put("size", cache.getNativeCache().estimatedSize());
+            entry.put("hits", stats.hitCount());
+            entry.put("misses", stats.missCount());
+            entry.put("hitRatio", stats.hitRate());
+            entry.put("evictions", stats.evictionCount());
+            caches.put(name, entry);
+        }
+        return ResponseEntity.ok(caches);
+    }
+
+    @GetMapping("/mail")
+    public ResponseEntity<MailStats> getMailStatistics() {
+        return ResponseEntity.ok(mailDispatcher.stats());
+    }
+
+    @GetMapping("/logins")
+    public ResponseEntity<LoginThrottle.LoginThrottleStats> getLoginStatistics() {
+        return ResponseEntity.ok(loginThrottle.stats());
+    }
 }
@@ -1,14 +1,12 @@
 package com.example.payroll.security;
 
-import java.util.Collections;
+import java.util.concurrent.CompletableFuture;
 
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.task.TaskExecutionAutoConfiguration;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.http.ResponseEntity;
-import org.springframework.security.authentication.AuthenticationManager;
-import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
-import org.springframework.security.core.authority.SimpleGrantedAuthority;
-import org.springframework.security.core.userdetails.UserDetails;
-import org.springframework.security.core.userdetails.UsernameNotFoundException;
-import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
@@ -17,7 +15,8 @@ import org.springframework.web.bind.annotation.RestController;
 import com.example.payroll.EmailService;
 import com.example.payroll.exceptions.UsernameAlreadyExistsException;
 
-import jakarta.mail.MessagingException;
+import io.micrometer.core.annotation.Timed;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import lombok.Data;
 
@@ -26,71 +25,73 @@ import lombok.Data;
 public class AuthController {
 
     private final UserRepository userRepository;
-    private final PasswordEncoder passwordEncoder;
-    private final AuthenticationManager authenticationManager;
+    private final PasswordHashingService passwordHashingService;
+    private final LoginService loginService;
     private final JwtUtil jwtUtil;
-    private final CustomUserDetailsService userDetailsService;
     private final RefreshTokenService refreshTokenService;
     private final EmailService emailService;
+    private final AsyncTaskExecutor taskExecutor;
 
-    public AuthController(UserRepository userRepository, PasswordEncoder passwordEncoder,
-            AuthenticationManager authenticationManager, JwtUtil jwtUtil,
-            CustomUserDetailsService userDetailsService, RefreshTokenService refreshTokenService,
-            EmailService emailService) {
+    public AuthController(UserRepository userRepository, PasswordHashingService passwordHashingService,
+            LoginService loginService, JwtUtil jwtUtil,
+            RefreshTokenService refreshTokenService, EmailService emailService,
+            @Qualifier(TaskExecutionAutoConfiguration.APPLICATION_TASK_EXECUTOR_BEAN_NAME) AsyncTaskExecutor taskExecutor) {
         this.userRepository = userRepository;
-        this.passwordEncoder = passwordEncoder;
-        this.authenticationManager = authenticationManager;
+        this.passwordHashingService = passwordHashingService;
+        this.loginService = loginService;
         this.jwtUtil = jwtUtil;
-        this.userDetailsService = userDetailsService;
         this.refreshTokenService = refreshTokenService;
         this.emailService = emailService;
+        this.taskExecutor = taskExecutor;
     }
 
     @PostMapping("/register")
-    public ResponseEntity<String> registerUser(@Valid @RequestBody User user) throws MessagingException{
+    public CompletableFuture<ResponseEntity<String>> registerUser(@Valid @RequestBody User user) {
 
         if (userRepository.findByUsername(user.getUsername()).isPresent()) {
             throw new UsernameAlreadyExistsException("Username already exists");
         }
 
-        user.setPassword(passwordEncoder.encode(user.getPassword()));
-        userRepository.save(user);
+        // Only the hash runs on the hashing pool; the save and the mail go to the task executor,
+        // so database waits never hold a hashing thread. The request thread is released meanwhile.
+        return passwordHashingService.encode(user.getPassword()).thenApplyAsync(hash -> {
+            user.setPassword(hash);
+            save(user);
 
-        // Send welcome email
-        emailService.sendWelcomeEmail(user.getUsername(), user.getUsername());
+            // Send welcome email
+            emailService.sendWelcomeEmail(user.getUsername(), user.getUsername());
 
-        // Notify admin
-        emailService.sendAdminNotification("admin@example.com", "New user registered: " + user.getUsername());
+            // Notify admin
+            emailService.sendAdminNotification("admin@example.com", "New user registered: " + user.getUsername());
 
-        return ResponseEntity.ok("User registered successfully");
+            return ResponseEntity.ok("User registered successfully");
+        }, taskExecutor);
     }
 
-    @PostMapping("/login")
-    public ResponseEntity<?> login(@RequestBody AuthenticationRequest request) {
-        // Retrieve user once
-        User user = userRepository.findByUsername(request.getUsername())
-                .orElseThrow(() -> new UsernameNotFoundException("User not found"));
-
-        authenticationManager.authenticate(
-                new UsernamePasswordAuthenticationToken(user.getUsername(), request.getPassword()));
-
-        UserDetails userDetails = new org.springframework.security.core.userdetails.User(
-                user.getUsername(),
-                user.getPassword(),
-                Collections.singletonList(new SimpleGrantedAuthority(user.getRole())));
-
-        String jwt = jwtUtil.generateToken(userDetails);
-        RefreshToken refreshToken = refreshTokenService.createRefreshToken(user.getId());
+    // Two registrations of one name can both pass the check above; the unique index decides
+    private void save(User user) {
+        try {
+            userRepository.save(user);
+        } catch (DataIntegrityViolationException e) {
+            if (userRepository.findByUsername(user.getUsername()).isPresent()) {
+                throw new UsernameAlreadyExistsException("Username already exists");
+            }
+            throw e;
+        }
+    }
 
-        return ResponseEntity.ok(new AuthenticationResponse(jwt, refreshToken.getToken()));
+    @PostMapping("/login")
+    @Timed(value = "payroll.auth.login", description = "Logins, including throttling and password checks")
+    public ResponseEntity<?> login(@RequestBody AuthenticationRequest request, HttpServletRequest httpRequest) {
+        return ResponseEntity.ok(loginService.login(request.getUsername(), request.getPassword(),
+                httpRequest.getRemoteAddr()));
     }
 
     @PostMapping("/refresh-token")
+    @Timed(value = "payroll.auth.refresh", description = "Refresh-token exchanges")
     public ResponseEntity<?> refreshToken(@RequestBody RefreshTokenRequest request) {
-        RefreshToken refreshToken = refreshTokenService.verifyRefreshToken(request.getRefreshToken());
-        UserDetails userDetails = userDetailsService.loadUserByUsername(refreshToken.getUser().getUsername());
-
-        String newAccessToken = jwtUtil.generateToken(userDetails);
+        AuthenticatedUser principal = refreshTokenService.verifyRefreshToken(request.getRefreshToken());
+        String newAccessToken = jwtUtil.generateToken(principal);
 
         return ResponseEntity.ok(new AuthenticationResponse(newAccessToken, request.getRefreshToken()));
     }
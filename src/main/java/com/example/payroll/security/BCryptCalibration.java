@@ -0,0 +1,40 @@
+package com.example.payroll.security;
+
+import java.time.Duration;
+
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+/**
+ * Picks the BCrypt work factor for this machine: the highest strength, between the given
+ * bounds, whose hash time stays within the target. Each strength step doubles the cost, so
+ * calibration stops as soon as the next step would overshoot.
+ */
+final class BCryptCalibration {
+
+    private static final String SAMPLE_PASSWORD = "calibration-sample-password";
+
+    private BCryptCalibration() {
+    }
+
+    static int calibrate(Duration target, int minStrength, int maxStrength) {
+        // Warm up the hashing code path so the first measurement is not dominated by the JIT
+        for (int i = 0; i < 3; i++) {
+            new BCryptPasswordEncoder(4).encode(SAMPLE_PASSWORD);
+        }
+
+        int strength = minStrength;
+        long nanos = measure(strength);
+        while (strength < maxStrength && nanos * 2 <= target.toNanos()) {
+            strength++;
+            nanos = measure(strength);
+        }
+        return strength;
+    }
+
+    private static long measure(int strength) {
+        BCryptPasswordEncoder encoder = new BCryptPasswordEncoder(strength);
+        long start = System.nanoTime();
+        encoder.encode(SAMPLE_PASSWORD);
+        return System.nanoTime() - start;
+    }
+}
@@ -0,0 +1,137 @@
+package com.example.payroll.security;
+
+import java.time.Instant;
+import java.util.Comparator;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Primary;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+import org.springframework.stereotype.Component;
+
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Serves refresh tokens from memory: a map from token hash to token, an index from user to
+ * their current hash, and an expiry-ordered set for purging. Writes reach the table through
+ * {@link JpaRefreshTokenStore} on a background thread, coalesced per user, and the maps are
+ * rebuilt from the table at startup. Owners are resolved through {@link UserDetailsCache} so
+ * role changes and deleted users take effect without touching the stored token.
+ * <p>
+ * Only suitable for a single instance: tokens issued by other nodes are not seen until restart.
+ */
+@Component
+@Primary
+@ConditionalOnProperty(name = "security.refresh-token.store", havingValue = "memory")
+public class InMemoryRefreshTokenStore implements RefreshTokenStore {
+
+    private static final Logger log = LoggerFactory.getLogger(InMemoryRefreshTokenStore.class);
+
+    private static final Comparator<StoredRefreshToken> BY_EXPIRY = Comparator
+            .comparing(StoredRefreshToken::expiryDate)
+            .thenComparing(StoredRefreshToken::tokenHash);
+
+    private final JpaRefreshTokenStore persistentStore;
+    private final UserDetailsCache userDetailsCache;
+
+    private final Map<String, StoredRefreshToken> tokensByHash = new ConcurrentHashMap<>();
+    private final Map<Long, String> hashByUser = new ConcurrentHashMap<>();
+    private final NavigableSet<StoredRefreshToken> byExpiry = new ConcurrentSkipListSet<>(BY_EXPIRY);
+
+    private final Map<Long, StoredRefreshToken> pendingWrites = new ConcurrentHashMap<>();
+    private final ExecutorService writer = Executors.newSingleThreadExecutor(
+            Thread.ofPlatform().name("refresh-token-writer").daemon().factory());
+
+    public InMemoryRefreshTokenStore(JpaRefreshTokenStore persistentStore, UserDetailsCache userDetailsCache) {
+        this.persistentStore = persistentStore;
+        this.userDetailsCache = userDetailsCache;
+
+        for (StoredRefreshToken token : persistentStore.findAllValid(Instant.now())) {
+            put(token);
+        }
+        log.info("Loaded {} refresh tokens into memory", tokensByHash.size());
+    }
+
+    @Override
+    public void save(StoredRefreshToken token) {
+        put(token);
+        pendingWrites.put(token.userId(), token);
+        writer.execute(this::flushPendingWrites);
+    }
+
+    @Override
+    public Optional<AuthenticatedUser> findOwner(String tokenHash, Instant now) {
+        StoredRefreshToken token = tokensByHash.get(tokenHash);
+        if (token == null || !token.expiryDate().isAfter(now)) {
+            return Optional.empty();
+        }
+        try {
+            return Optional.of(userDetailsCache.get(token.username()));
+        } catch (UsernameNotFoundException e) {
+            return Optional.empty();
+        }
+    }
+
+    @Override
+    public int purgeExpired(Instant now) {
+        StoredRefreshToken oldest;
+        while ((oldest = byExpiry.pollFirst()) != null) {
+            if (oldest.expiryDate().isAfter(now)) {
+                byExpiry.add(oldest);
+                break;
+            }
+            tokensByHash.remove(oldest.tokenHash());
+            hashByUser.remove(oldest.userId(), oldest.tokenHash());
+        }
+        return persistentStore.purgeExpired(now);
+    }
+
+    private void put(StoredRefreshToken token) {
+        // One token per user: the user's previous token is dropped in the same step
+        hashByUser.compute(token.userId(), (userId, previousHash) -> {
+            if (previousHash != null) {
+                StoredRefreshToken previous = tokensByHash.remove(previousHash);
+                if (previous != null) {
+                    byExpiry.remove(previous);
+                }
+            }
+            tokensByHash.put(token.tokenHash(), token);
+            byExpiry.add(token);
+            return token.tokenHash();
+        });
+    }
+
+    private void flushPendingWrites() {
+        for (Long userId : pendingWrites.keySet()) {
+            StoredRefreshToken token = pendingWrites.remove(userId);
+            if (token == null) {
+                continue;
+            }
+            try {
+                persistentStore.save(token);
+            } catch (RuntimeException e) {
+                // Keep the write unless a newer token for the user has been queued meanwhile
+                pendingWrites.putIfAbsent(userId, token);
+                log.warn("Could not persist refresh token for user {}, will retry on next write", userId, e);
+            }
+        }
+    }
+
+    @PreDestroy
+    void shutdown() throws InterruptedException {
+        writer.shutdown();
+        if (!writer.awaitTermination(10, TimeUnit.SECONDS)) {
+            writer.shutdownNow();
+        }
+        flushPendingWrites();
+    }
+}
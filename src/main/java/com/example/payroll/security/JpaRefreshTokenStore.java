@@ -0,0 +1,88 @@
+package com.example.payroll.security;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import jakarta.persistence.EntityManager;
+
+/**
+ * Keeps refresh tokens in the {@code refresh_token} table. Also the persistence layer of
+ * {@link InMemoryRefreshTokenStore}.
+ */
+@Component
+public class JpaRefreshTokenStore implements RefreshTokenStore {
+
+    private final RefreshTokenRepository refreshTokenRepository;
+    private final EntityManager entityManager;
+    private final TransactionTemplate transactionTemplate;
+    private final int purgeChunkSize;
+
+    public JpaRefreshTokenStore(RefreshTokenRepository refreshTokenRepository, EntityManager entityManager,
+            TransactionTemplate transactionTemplate,
+            @Value("${security.refresh-token.purge-chunk-size:1000}") int purgeChunkSize) {
+        this.refreshTokenRepository = refreshTokenRepository;
+        this.entityManager = entityManager;
+        this.transactionTemplate = transactionTemplate;
+        this.purgeChunkSize = purgeChunkSize;
+    }
+
+    /**
+     * Updates the user's row, or inserts it on the first login, in plain statements any
+     * database runs. When two first logins race, the loser's insert hits the unique user_id
+     * and is retried in a new transaction, where the update finds the winner's row.
+     */
+    @Override
+    public void save(StoredRefreshToken token) {
+        try {
+            transactionTemplate.executeWithoutResult(status -> replaceOrInsert(token));
+        } catch (DataIntegrityViolationException e) {
+            transactionTemplate.executeWithoutResult(status -> replaceOrInsert(token));
+        }
+    }
+
+    private void replaceOrInsert(StoredRefreshToken token) {
+        if (refreshTokenRepository.replace(token.userId(), token.tokenHash(), token.expiryDate()) > 0) {
+            return;
+        }
+        RefreshToken refreshToken = new RefreshToken();
+        refreshToken.setUser(entityManager.getReference(User.class, token.userId()));
+        refreshToken.setTokenHash(token.tokenHash());
+        refreshToken.setExpiryDate(token.expiryDate());
+        refreshTokenRepository.saveAndFlush(refreshToken);
+    }
+
+    @Override
+    public Optional<AuthenticatedUser> findOwner(String tokenHash, Instant now) {
+        return refreshTokenRepository.findValidByTokenHash(tokenHash, now)
+                .map(refreshToken -> AuthenticatedUser.from(refreshToken.getUser()));
+    }
+
+    /**
+     * Deletes expired tokens a chunk at a time, each chunk in its own transaction, so the
+     * purge never holds locks on a large part of the table.
+     */
+    @Override
+    public int purgeExpired(Instant now) {
+        int purged = 0;
+        List<Long> ids;
+        do {
+            ids = refreshTokenRepository.findExpiredIds(now, Limit.of(purgeChunkSize));
+            if (!ids.isEmpty()) {
+                List<Long> chunk = ids;
+                purged += transactionTemplate.execute(status -> refreshTokenRepository.deleteAllByIds(chunk));
+            }
+        } while (ids.size() == purgeChunkSize);
+        return purged;
+    }
+
+    List<StoredRefreshToken> findAllValid(Instant now) {
+        return refreshTokenRepository.findAllValid(now);
+    }
+}
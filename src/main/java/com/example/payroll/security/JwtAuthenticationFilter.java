@@ -1,26 +1,50 @@
 package com.example.payroll.security;
 
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
-import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
 import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
 
 @Component
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
+    // Outcomes of the token check, each timed as payroll.jwt.authentication
+    private static final String ANONYMOUS = "anonymous";
+    private static final String INVALID = "invalid";
+    private static final String AUTHENTICATED = "authenticated";
+    private static final String REJECTED = "rejected";
+
     private final JwtUtil jwtUtil;
-    private final CustomUserDetailsService userDetailsService;
+    private final UserDetailsCache userDetailsCache;
+    private final Map<String, Timer> timers;
 
-    public JwtAuthenticationFilter(JwtUtil jwtUtil, CustomUserDetailsService userDetailsService) {
+    public JwtAuthenticationFilter(JwtUtil jwtUtil, UserDetailsCache userDetailsCache, MeterRegistry meterRegistry) {
         this.jwtUtil = jwtUtil;
-        this.userDetailsService = userDetailsService;
+        this.userDetailsCache = userDetailsCache;
+        this.timers = Map.of(
+                ANONYMOUS, timer(meterRegistry, ANONYMOUS),
+                INVALID, timer(meterRegistry, INVALID),
+                AUTHENTICATED, timer(meterRegistry, AUTHENTICATED),
+                REJECTED, timer(meterRegistry, REJECTED));
+    }
+
+    private static Timer timer(MeterRegistry meterRegistry, String outcome) {
+        return Timer.builder("payroll.jwt.authentication")
+                .description("Time spent checking the bearer token, excluding the rest of the request")
+                .tag("outcome", outcome)
+                .register(meterRegistry);
     }
 
     @Override
@@ -28,33 +52,54 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
                                     HttpServletResponse response, 
                                     FilterChain filterChain) 
                                     throws ServletException, IOException {
+        long start = System.nanoTime();
+        String outcome = authenticate(request);
+        timers.get(outcome).record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+
+        filterChain.doFilter(request, response);
+    }
+
+    private String authenticate(HttpServletRequest request) {
         // Get the Authorization header
         String authorizationHeader = request.getHeader("Authorization");
 
         // Check if the header is valid and contains "Bearer" token
         if (authorizationHeader == null || !authorizationHeader.startsWith("Bearer ")) {
-            filterChain.doFilter(request, response);
-            return;
+            return ANONYMOUS;
         }
 
-        // Extract JWT token from the header
+        // Extract JWT token from the header and verify it once for the whole request
         String token = authorizationHeader.substring(7);
-        String username = jwtUtil.extractUsername(token);
+        Claims claims;
+        try {
+            claims = jwtUtil.parseClaims(token);
+        } catch (JwtException | IllegalArgumentException e) {
+            return INVALID;
+        }
+        String username = claims.getSubject();
+        if (username == null) {
+            return INVALID;
+        }
 
         // Authenticate the user if token is valid and not already authenticated
-        if (username != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-            UserDetails userDetails = userDetailsService.loadUserByUsername(username);
-
-            if (jwtUtil.validateToken(token, userDetails)) {
-                UsernamePasswordAuthenticationToken authenticationToken =
-                        new UsernamePasswordAuthenticationToken(userDetails, null, userDetails.getAuthorities());
-                authenticationToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
+        if (SecurityContextHolder.getContext().getAuthentication() != null) {
+            return AUTHENTICATED;
+        }
+        AuthenticatedUser principal = jwtUtil.extractPrincipal(claims);
+        if (principal == null) {
+            // Token predates the id and role claims; resolve the user instead
+            principal = userDetailsCache.get(username);
+        }
 
-                // Set the authentication in the security context
-                SecurityContextHolder.getContext().setAuthentication(authenticationToken);
-            }
+        if (!jwtUtil.validateToken(claims, principal)) {
+            return REJECTED;
         }
+        UsernamePasswordAuthenticationToken authenticationToken =
+                new UsernamePasswordAuthenticationToken(principal, null, principal.getAuthorities());
+        authenticationToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
 
-        filterChain.doFilter(request, response);
+        // Set the authentication in the security context
+        SecurityContextHolder.getContext().setAuthentication(authenticationToken);
+        return AUTHENTICATED;
     }
 }
@@ -0,0 +1,83 @@
+package com.example.payroll.security;
+
+import java.util.UUID;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.task.TaskExecutionAutoConfiguration;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Service;
+
+/**
+ * Password login in one pass: the user row is read once and reused for the password check,
+ * the access token and the refresh token, so a login costs one select plus one refresh-token
+ * update (an insert on the first login). Attempts go through {@link LoginThrottle} before any
+ * lookup or hashing. Hashes with an outdated encoding or cost are replaced after a successful
+ * login, off the request thread.
+ */
+@Service
+public class LoginService {
+
+    private static final Logger log = LoggerFactory.getLogger(LoginService.class);
+
+    private static final String BAD_CREDENTIALS = "Invalid username or password";
+
+    private final UserRepository userRepository;
+    private final PasswordEncoder passwordEncoder;
+    private final JwtUtil jwtUtil;
+    private final RefreshTokenService refreshTokenService;
+    private final LoginThrottle loginThrottle;
+    private final PasswordHashingService passwordHashingService;
+    private final AsyncTaskExecutor taskExecutor;
+    // Compared against for unknown usernames so they take as long as a wrong password
+    private final String dummyPasswordHash;
+
+    public LoginService(UserRepository userRepository, PasswordEncoder passwordEncoder, JwtUtil jwtUtil,
+            RefreshTokenService refreshTokenService, LoginThrottle loginThrottle,
+            PasswordHashingService passwordHashingService,
+            @Qualifier(TaskExecutionAutoConfiguration.APPLICATION_TASK_EXECUTOR_BEAN_NAME) AsyncTaskExecutor taskExecutor) {
+        this.userRepository = userRepository;
+        this.passwordEncoder = passwordEncoder;
+        this.jwtUtil = jwtUtil;
+        this.refreshTokenService = refreshTokenService;
+        this.loginThrottle = loginThrottle;
+        this.passwordHashingService = passwordHashingService;
+        this.taskExecutor = taskExecutor;
+        this.dummyPasswordHash = passwordEncoder.encode(UUID.randomUUID().toString());
+    }
+
+    public AuthenticationResponse login(String username, String password, String clientIp) {
+        loginThrottle.checkAttempt(username, clientIp);
+
+        User user = userRepository.findByUsername(username).orElse(null);
+        boolean matches = password != null && loginThrottle.verify(() -> {
+            String hash = user != null ? user.getPassword() : dummyPasswordHash;
+            return passwordEncoder.matches(password, hash) && user != null;
+        });
+        if (!matches) {
+            loginThrottle.recordFailure(username);
+            throw new BadCredentialsException(BAD_CREDENTIALS);
+        }
+        if (passwordEncoder.upgradeEncoding(user.getPassword())) {
+            rehash(user.getId(), user.getPassword(), password);
+        }
+
+        AuthenticatedUser principal = AuthenticatedUser.from(user);
+        String jwt = jwtUtil.generateToken(principal);
+        RefreshToken refreshToken = refreshTokenService.createRefreshToken(principal);
+        return new AuthenticationResponse(jwt, refreshToken.getToken());
+    }
+
+    // As in registration, the update goes to the task executor so it never holds a hashing thread
+    private void rehash(Long userId, String oldHash, String password) {
+        passwordHashingService.encode(password)
+                .thenAcceptAsync(newHash -> userRepository.updatePasswordHash(userId, oldHash, newHash), taskExecutor)
+                .exceptionally(e -> {
+                    log.warn("Could not upgrade password hash for user {}", userId, e);
+                    return null;
+                });
+    }
+}
@@ -0,0 +1,113 @@
+package com.example.payroll.security;
+
+import java.time.Duration;
+import java.util.Locale;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BooleanSupplier;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.stereotype.Component;
+
+import com.example.payroll.exceptions.TooManyRequestsException;
+
+/**
+ * Admission control for password logins. Attempts are limited per client IP; failed attempts
+ * are limited per username, so a guessing run against one account is stopped without locking
+ * its owner out of a correct login from elsewhere once the bucket refills. Password checks
+ * run under a semaphore sized to the CPU, and requests that cannot get a permit within
+ * {@code max-wait} are shed before any hashing.
+ */
+@Component
+public class LoginThrottle {
+
+    public static final String IP_BUCKETS = "loginAttemptsByIp";
+    public static final String USERNAME_BUCKETS = "loginFailuresByUsername";
+
+    public record LoginThrottleStats(long verified, long throttledByIp, long throttledByUsername,
+            long shedByConcurrency, int verificationsInProgress, int maxConcurrentVerifications) {
+    }
+
+    private final RateLimiter attemptsByIp;
+    private final RateLimiter failuresByUsername;
+    private final Semaphore verifications;
+    private final int maxConcurrentVerifications;
+    private final Duration maxWait;
+
+    private final AtomicLong verified = new AtomicLong();
+    private final AtomicLong throttledByIp = new AtomicLong();
+    private final AtomicLong throttledByUsername = new AtomicLong();
+    private final AtomicLong shedByConcurrency = new AtomicLong();
+
+    public LoginThrottle(CaffeineCacheManager cacheManager,
+            @Value("${security.login.throttle.ip.capacity:100}") int ipCapacity,
+            @Value("${security.login.throttle.ip.period:PT1M}") Duration ipPeriod,
+            @Value("${security.login.throttle.username.capacity:10}") int usernameCapacity,
+            @Value("${security.login.throttle.username.period:PT15M}") Duration usernamePeriod,
+            @Value("${security.login.throttle.maximum-keys:100000}") long maximumKeys,
+            @Value("${security.login.max-concurrent-verifications:0}") int maxConcurrentVerifications,
+            @Value("${security.login.max-verification-wait:PT0.2S}") Duration maxWait) {
+        this.attemptsByIp = new RateLimiter(ipCapacity, ipPeriod, maximumKeys);
+        this.failuresByUsername = new RateLimiter(usernameCapacity, usernamePeriod, maximumKeys);
+        this.maxConcurrentVerifications = maxConcurrentVerifications > 0 ? maxConcurrentVerifications
+                : Runtime.getRuntime().availableProcessors();
+        this.verifications = new Semaphore(this.maxConcurrentVerifications);
+        this.maxWait = maxWait;
+        cacheManager.registerCustomCache(IP_BUCKETS, attemptsByIp.buckets());
+        cacheManager.registerCustomCache(USERNAME_BUCKETS, failuresByUsername.buckets());
+    }
+
+    /**
+     * Admits a login attempt or throws {@link TooManyRequestsException}. Takes a token from the
+     * client's bucket; the username bucket is only checked here and charged on failure.
+     */
+    public void checkAttempt(String username, String clientIp) {
+        Duration wait = attemptsByIp.tryAcquire(clientIp);
+        if (!wait.isZero()) {
+            throttledByIp.incrementAndGet();
+            throw new TooManyRequestsException("Too many login attempts", wait);
+        }
+        wait = failuresByUsername.peek(usernameKey(username));
+        if (!wait.isZero()) {
+            throttledByUsername.incrementAndGet();
+            throw new TooManyRequestsException("Too many failed login attempts for this account", wait);
+        }
+    }
+
+    public void recordFailure(String username) {
+        failuresByUsername.tryAcquire(usernameKey(username));
+    }
+
+    /** Runs the password check once a verification permit is available. */
+    public boolean verify(BooleanSupplier passwordCheck) {
+        boolean acquired;
+        try {
+            acquired = verifications.tryAcquire(maxWait.toNanos(), TimeUnit.NANOSECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            acquired = false;
+        }
+        if (!acquired) {
+            shedByConcurrency.incrementAndGet();
+            throw new TooManyRequestsException("Login service busy", Duration.ofSeconds(1));
+        }
+        try {
+            verified.incrementAndGet();
+            return passwordCheck.getAsBoolean();
+        } finally {
+            verifications.release();
+        }
+    }
+
+    public LoginThrottleStats stats() {
+        return new LoginThrottleStats(verified.get(), throttledByIp.get(), throttledByUsername.get(),
+                shedByConcurrency.get(), maxConcurrentVerifications - verifications.availablePermits(),
+                maxConcurrentVerifications);
+    }
+
+    private static String usernameKey(String username) {
+        return username == null ? "" : username.toLowerCase(Locale.ROOT);
+    }
+}
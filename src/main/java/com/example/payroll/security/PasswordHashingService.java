@@ -0,0 +1,64 @@
+package com.example.payroll.security;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Service;
+
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Runs BCrypt hashing on a dedicated pool sized to the CPU count, off the request threads.
+ * Callers that create many users fan out across the pool; the hash of the default employee
+ * password is computed once at startup and reused.
+ */
+@Service
+public class PasswordHashingService {
+
+    public static final String DEFAULT_EMPLOYEE_PASSWORD = "123456";
+
+    private final PasswordEncoder passwordEncoder;
+    private final ExecutorService executor;
+    private final CompletableFuture<String> defaultEmployeePasswordHash;
+
+    public PasswordHashingService(PasswordEncoder passwordEncoder,
+            @Value("${security.password.hashing-threads:0}") int threads) {
+        this.passwordEncoder = passwordEncoder;
+        int poolSize = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        // BCrypt is CPU-bound, so this pool stays on platform threads in virtual-thread mode
+        this.executor = Executors.newFixedThreadPool(poolSize,
+                Thread.ofPlatform().name("password-hashing-", 0).daemon().factory());
+        this.defaultEmployeePasswordHash = encode(DEFAULT_EMPLOYEE_PASSWORD);
+    }
+
+    public CompletableFuture<String> encode(CharSequence rawPassword) {
+        return CompletableFuture.supplyAsync(() -> passwordEncoder.encode(rawPassword), executor);
+    }
+
+    // Hashes all passwords in parallel and returns them in the same order.
+    public List<String> encodeAll(List<? extends CharSequence> rawPasswords) {
+        List<CompletableFuture<String>> hashes = new ArrayList<>(rawPasswords.size());
+        for (CharSequence rawPassword : rawPasswords) {
+            hashes.add(encode(rawPassword));
+        }
+        List<String> encoded = new ArrayList<>(hashes.size());
+        for (CompletableFuture<String> hash : hashes) {
+            encoded.add(hash.join());
+        }
+        return encoded;
+    }
+
+    public String defaultEmployeePasswordHash() {
+        return defaultEmployeePasswordHash.join();
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdownNow();
+    }
+}
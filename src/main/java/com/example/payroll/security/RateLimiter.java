@@ -0,0 +1,68 @@
+package com.example.payroll.security;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+/**
+ * Per-key token buckets of {@code capacity} tokens refilled over {@code period}. Each bucket is
+ * a single {@link AtomicLong} holding the time at which it will next be full (the generic cell
+ * rate algorithm), updated with CAS. Idle buckets are full again after one period, so they are
+ * evicted after a period without access.
+ */
+final class RateLimiter {
+
+    private final Cache<Object, Object> buckets;
+    private final long emissionIntervalNanos;
+    private final long burstToleranceNanos;
+
+    RateLimiter(int capacity, Duration period, long maximumKeys) {
+        this.emissionIntervalNanos = period.toNanos() / capacity;
+        this.burstToleranceNanos = emissionIntervalNanos * (capacity - 1);
+        this.buckets = Caffeine.newBuilder()
+                .maximumSize(maximumKeys)
+                .expireAfterAccess(period)
+                .recordStats()
+                .build();
+    }
+
+    Cache<Object, Object> buckets() {
+        return buckets;
+    }
+
+    /**
+     * Takes a token for the key. Returns zero if one was available, otherwise how long until
+     * one will be.
+     */
+    Duration tryAcquire(String key) {
+        AtomicLong bucket = bucket(key);
+        while (true) {
+            long now = System.nanoTime();
+            long current = bucket.get();
+            long theoreticalArrival = current - now > 0 ? current : now;
+            long wait = theoreticalArrival - now - burstToleranceNanos;
+            if (wait > 0) {
+                return Duration.ofNanos(wait);
+            }
+            if (bucket.compareAndSet(current, theoreticalArrival + emissionIntervalNanos)) {
+                return Duration.ZERO;
+            }
+        }
+    }
+
+    /** How long until a token is available for the key, without taking one. */
+    Duration peek(String key) {
+        AtomicLong bucket = (AtomicLong) buckets.getIfPresent(key);
+        if (bucket == null) {
+            return Duration.ZERO;
+        }
+        long wait = bucket.get() - System.nanoTime() - burstToleranceNanos;
+        return wait > 0 ? Duration.ofNanos(wait) : Duration.ZERO;
+    }
+
+    private AtomicLong bucket(String key) {
+        return (AtomicLong) buckets.get(key, k -> new AtomicLong(System.nanoTime()));
+    }
+}
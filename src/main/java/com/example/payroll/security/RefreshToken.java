@@ -2,24 +2,39 @@ package com.example.payroll.security;
 
 import jakarta.persistence.*;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.ToString;
 
 import java.time.Instant;
 
+/**
+ * One refresh token per user. Only the SHA-256 of the token is stored; the raw value is
+ * returned to the client once and kept in the transient {@code token} field. The hash is
+ * unique on its own, so verification resolves at most one row.
+ */
 @Entity
 @Data
+@Table(name = "refresh_token", indexes = {
+        @Index(name = "ux_refresh_token_hash", columnList = "token_hash", unique = true),
+        @Index(name = "ix_refresh_token_expiry", columnList = "expiry_date") })
 public class RefreshToken {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
 
-    @OneToOne
-    @JoinColumn(name = "user_id", referencedColumnName = "id")
+    @OneToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "user_id", referencedColumnName = "id", nullable = false, unique = true)
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
     private User user;
 
-    @Column(nullable = false, unique = true)
-    private String token;
+    @Column(name = "token_hash", nullable = false, length = 64)
+    private String tokenHash;
 
-    @Column(nullable = false)
+    @Column(name = "expiry_date", nullable = false)
     private Instant expiryDate;
 
+    @Transient
+    private String token;
+
 }
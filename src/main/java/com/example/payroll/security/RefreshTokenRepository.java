@@ -1,9 +1,36 @@
 package com.example.payroll.security;
 
-import org.springframework.data.jpa.repository.JpaRepository;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
 public interface RefreshTokenRepository extends JpaRepository<RefreshToken, Long> {
-    Optional<RefreshToken> findByToken(String token);
-    void deleteByUser(User user);
+
+    @Query("select t from RefreshToken t join fetch t.user where t.tokenHash = :tokenHash and t.expiryDate > :now")
+    Optional<RefreshToken> findValidByTokenHash(@Param("tokenHash") String tokenHash, @Param("now") Instant now);
+
+    // Rotates the user's token in place; 0 when the user has none yet. A JPQL update only
+    // invalidates refresh_token, so logins leave the second-level cache regions alone.
+    @Modifying
+    @Query("update RefreshToken t set t.tokenHash = :tokenHash, t.expiryDate = :expiryDate where t.user.id = :userId")
+    int replace(@Param("userId") Long userId, @Param("tokenHash") String tokenHash,
+            @Param("expiryDate") Instant expiryDate);
+
+    @Query("select new com.example.payroll.security.StoredRefreshToken(t.tokenHash, u.id, u.username, t.expiryDate) "
+            + "from RefreshToken t join t.user u where t.expiryDate > :now")
+    List<StoredRefreshToken> findAllValid(@Param("now") Instant now);
+
+    @Query("select t.id from RefreshToken t where t.expiryDate <= :now order by t.expiryDate")
+    List<Long> findExpiredIds(@Param("now") Instant now, Limit limit);
+
+    @Modifying
+    @Query("delete from RefreshToken t where t.id in :ids")
+    int deleteAllByIds(@Param("ids") Collection<Long> ids);
 }
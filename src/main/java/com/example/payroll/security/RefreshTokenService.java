@@ -1,36 +1,72 @@
 package com.example.payroll.security;
 
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.time.Duration;
 import java.time.Instant;
-import java.util.UUID;
+import java.util.Base64;
+import java.util.HexFormat;
 
 @Service
 public class RefreshTokenService {
 
-    private final RefreshTokenRepository refreshTokenRepository;
-    private final UserRepository userRepository;
+    private static final Logger log = LoggerFactory.getLogger(RefreshTokenService.class);
+
+    private final RefreshTokenStore refreshTokenStore;
+    private final Duration ttl;
+    private final SecureRandom random = new SecureRandom();
 
-    public RefreshTokenService(RefreshTokenRepository refreshTokenRepository, UserRepository userRepository) {
-        this.refreshTokenRepository = refreshTokenRepository;
-        this.userRepository = userRepository;
+    public RefreshTokenService(RefreshTokenStore refreshTokenStore,
+            @Value("${security.refresh-token.ttl:P7D}") Duration ttl) {
+        this.refreshTokenStore = refreshTokenStore;
+        this.ttl = ttl;
     }
 
-    public RefreshToken createRefreshToken(Long userId) {
-        User user = userRepository.findById(userId)
-                .orElseThrow(() -> new RuntimeException("User not found"));
+    public RefreshToken createRefreshToken(AuthenticatedUser user) {
+        byte[] bytes = new byte[32];
+        random.nextBytes(bytes);
+        String token = Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
 
         RefreshToken refreshToken = new RefreshToken();
-        refreshToken.setUser(user);
-        refreshToken.setToken(UUID.randomUUID().toString());
-        refreshToken.setExpiryDate(Instant.now().plusSeconds(7 * 24 * 60 * 60)); // 7 days
+        refreshToken.setToken(token);
+        refreshToken.setTokenHash(hash(token));
+        refreshToken.setExpiryDate(Instant.now().plus(ttl));
 
-        refreshTokenRepository.deleteByUser(user); // Ensure only one refresh token per user
-        return refreshTokenRepository.save(refreshToken);
+        // Ensure only one refresh token per user
+        refreshTokenStore.save(new StoredRefreshToken(refreshToken.getTokenHash(), user.getId(),
+                user.getUsername(), refreshToken.getExpiryDate()));
+        return refreshToken;
     }
 
-    public RefreshToken verifyRefreshToken(String token) {
-        return refreshTokenRepository.findByToken(token)
-                .filter(refreshToken -> refreshToken.getExpiryDate().isAfter(Instant.now()))
+    public AuthenticatedUser verifyRefreshToken(String token) {
+        return refreshTokenStore.findOwner(hash(token), Instant.now())
                 .orElseThrow(() -> new RuntimeException("Invalid or expired refresh token"));
     }
+
+    @Scheduled(fixedDelayString = "${security.refresh-token.purge-interval:PT1H}",
+            initialDelayString = "${security.refresh-token.purge-interval:PT1H}")
+    public int purgeExpired() {
+        int purged = refreshTokenStore.purgeExpired(Instant.now());
+        if (purged > 0) {
+            log.info("Purged {} expired refresh tokens", purged);
+        }
+        return purged;
+    }
+
+    static String hash(String token) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(token.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
 }
@@ -0,0 +1,21 @@
+package com.example.payroll.security;
+
+import java.time.Instant;
+import java.util.Optional;
+
+/**
+ * Storage behind {@link RefreshTokenService}. Tokens are identified by their SHA-256 hash and
+ * each user holds at most one. Selected with {@code security.refresh-token.store}: {@code jpa}
+ * (default) or {@code memory}.
+ */
+public interface RefreshTokenStore {
+
+    /** Replaces the user's refresh token with the given one. */
+    void save(StoredRefreshToken token);
+
+    /** Returns the owner of the token if it exists and has not expired at {@code now}. */
+    Optional<AuthenticatedUser> findOwner(String tokenHash, Instant now);
+
+    /** Removes tokens that expired at or before {@code now} and returns how many were deleted. */
+    int purgeExpired(Instant now);
+}
@@ -1,7 +1,12 @@
 package com.example.payroll.security;
 
+import java.time.Duration;
 import java.util.Collections;
+import java.util.Map;
 
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.authentication.AuthenticationManager;
@@ -11,19 +16,40 @@ import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.config.http.SessionCreationPolicy;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.DelegatingPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.DispatcherType;
+
 @Configuration
 @EnableWebSecurity
 public class SecurityConfig {
+    private static final Logger log = LoggerFactory.getLogger(SecurityConfig.class);
+
     private final JwtAuthenticationFilter jwtAuthenticationFilter;
     private final CustomUserDetailsService userDetailsService;
+    private final int bcryptStrength;
+    private final Duration bcryptTargetTime;
+    private final int bcryptMinStrength;
+    private final int bcryptMaxStrength;
+    private final MeterRegistry meterRegistry;
 
-      public SecurityConfig(JwtAuthenticationFilter jwtAuthenticationFilter, CustomUserDetailsService userDetailsService) {
+      public SecurityConfig(JwtAuthenticationFilter jwtAuthenticationFilter, CustomUserDetailsService userDetailsService,
+            @Value("${security.password.bcrypt.strength:0}") int bcryptStrength,
+            @Value("${security.password.bcrypt.target-time:PT0.25S}") Duration bcryptTargetTime,
+            @Value("${security.password.bcrypt.min-strength:10}") int bcryptMinStrength,
+            @Value("${security.password.bcrypt.max-strength:16}") int bcryptMaxStrength,
+            MeterRegistry meterRegistry) {
         this.jwtAuthenticationFilter = jwtAuthenticationFilter;
         this.userDetailsService = userDetailsService;
+        this.bcryptStrength = bcryptStrength;
+        this.bcryptTargetTime = bcryptTargetTime;
+        this.bcryptMinStrength = bcryptMinStrength;
+        this.bcryptMaxStrength = bcryptMaxStrength;
+        this.meterRegistry = meterRegistry;
     }
 
     @Bean
@@ -31,11 +57,16 @@ public class SecurityConfig {
         http
         .csrf(csrf -> csrf.disable())
             .authorizeHttpRequests(auth -> auth
+                // Streaming responses finish on an async dispatch; the original request was already authorized
+                .dispatcherTypeMatchers(DispatcherType.ASYNC).permitAll()
                 .requestMatchers("/auth/**").permitAll()
                 .requestMatchers("/admin/**").hasRole("ADMIN") // Only admins
                 .requestMatchers("/swagger-ui.html").permitAll()
                .requestMatchers("/swagger-ui/**").permitAll()
                .requestMatchers("/api-docs/**").permitAll()
+                // Load balancer health checks and the Prometheus scraper carry no token
+                .requestMatchers("/actuator/health/**", "/actuator/prometheus").permitAll()
+                .requestMatchers("/actuator/**").hasRole("ADMIN")
                 .anyRequest().authenticated()
             )
             .sessionManagement(sess -> sess.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
@@ -59,8 +90,23 @@ public class SecurityConfig {
         return provider;
     }
 
+    /**
+     * BCrypt at a strength calibrated to {@code target-time} on this machine, unless a fixed
+     * {@code strength} is configured. New hashes are stored with a {@code {bcrypt}} prefix;
+     * existing unprefixed hashes still match, and {@code upgradeEncoding} reports them and any
+     * hash below the current strength so LoginService can rehash on the next login. Every
+     * hash and verification is timed.
+     */
     @Bean
     public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+        int strength = bcryptStrength;
+        if (strength <= 0) {
+            strength = BCryptCalibration.calibrate(bcryptTargetTime, bcryptMinStrength, bcryptMaxStrength);
+            log.info("Calibrated BCrypt strength {} for a target of {} ms", strength, bcryptTargetTime.toMillis());
+        }
+        BCryptPasswordEncoder bcrypt = new BCryptPasswordEncoder(strength);
+        DelegatingPasswordEncoder encoder = new DelegatingPasswordEncoder("bcrypt", Map.of("bcrypt", bcrypt));
+        encoder.setDefaultPasswordEncoderForMatches(bcrypt);
+        return new TimedPasswordEncoder(encoder, meterRegistry);
     }
 }
@@ -0,0 +1,6 @@
+package com.example.payroll.security;
+
+import java.time.Instant;
+
+public record StoredRefreshToken(String tokenHash, Long userId, String username, Instant expiryDate) {
+}
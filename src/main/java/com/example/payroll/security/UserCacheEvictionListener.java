@@ -0,0 +1,28 @@
+package com.example.payroll.security;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Component;
+
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+
+/**
+ * Evicts cached UserDetails when a user's password or role is changed or the user is removed.
+ * The cache is looked up lazily because Hibernate instantiates listeners while the
+ * EntityManagerFactory is still being built.
+ */
+@Component
+public class UserCacheEvictionListener {
+
+    private final ObjectProvider<UserDetailsCache> userDetailsCache;
+
+    public UserCacheEvictionListener(ObjectProvider<UserDetailsCache> userDetailsCache) {
+        this.userDetailsCache = userDetailsCache;
+    }
+
+    @PostUpdate
+    @PostRemove
+    void evict(User user) {
+        userDetailsCache.ifAvailable(cache -> cache.evict(user.getUsername()));
+    }
+}
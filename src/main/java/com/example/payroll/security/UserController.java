@@ -2,8 +2,6 @@ package com.example.payroll.security;
 
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
-import org.springframework.security.core.Authentication;
-import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestMapping;
@@ -23,14 +21,11 @@ public class UserController {
 
     @GetMapping("/{id}")
     public ResponseEntity<?> getUser(@PathVariable Long id) {
-        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
-        String username = authentication.getName(); // Get username directly
-
-        User authenticatedUser = userRepository.findByUsername(username)
-                .orElseThrow(() -> new RuntimeException("User not found"));
+        // The principal carries the caller's id and role, so no lookup is needed for the check
+        AuthenticatedUser authenticatedUser = AuthenticatedUser.current();
 
         // Allow access if the user is an admin OR if they are accessing their own data
-        if (!authenticatedUser.getRole().equals("ROLE_ADMIN") && !authenticatedUser.getId().equals(id)) {
+        if (!authenticatedUser.isAdmin() && !authenticatedUser.getId().equals(id)) {
             return ResponseEntity.status(HttpStatus.FORBIDDEN).body("You are not allowed to access this data.");
         }
 
@@ -0,0 +1,51 @@
+package com.example.payroll.security;
+
+import java.time.Duration;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+import org.springframework.stereotype.Component;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+/**
+ * Bounded, TTL-based cache of the principals the JWT filter resolves for tokens that do not
+ * carry the user's id and role. Entries hold no password.
+ * {@link UserCacheEvictionListener} drops an entry whenever the user row changes.
+ */
+@Component
+public class UserDetailsCache {
+
+    public static final String CACHE_NAME = "userDetails";
+
+    private final UserRepository userRepository;
+    private final Cache<Object, Object> cache;
+
+    public UserDetailsCache(UserRepository userRepository, CaffeineCacheManager cacheManager,
+            @Value("${security.user-cache.maximum-size:10000}") long maximumSize,
+            @Value("${security.user-cache.ttl:PT5M}") Duration ttl) {
+        this.userRepository = userRepository;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        cacheManager.registerCustomCache(CACHE_NAME, cache);
+    }
+
+    public AuthenticatedUser get(String username) throws UsernameNotFoundException {
+        return (AuthenticatedUser) cache.get(username, key -> load((String) key));
+    }
+
+    public void evict(String username) {
+        cache.invalidate(username);
+    }
+
+    private AuthenticatedUser load(String username) {
+        return userRepository.findByUsername(username)
+                .map(AuthenticatedUser::from)
+                .orElseThrow(() -> new UsernameNotFoundException("User not found"));
+    }
+}
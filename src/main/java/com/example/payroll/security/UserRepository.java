@@ -1,10 +1,33 @@
 package com.example.payroll.security;
 
+import static org.hibernate.jpa.HibernateHints.HINT_CACHEABLE;
+
+import java.util.Collection;
 import java.util.Optional;
+import java.util.Set;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import jakarta.persistence.QueryHint;
 
 public interface UserRepository extends JpaRepository<User, Long> {
+    // Query cache plus the users region: a repeated login reads no rows until the users table changes
+    @QueryHints(@QueryHint(name = HINT_CACHEABLE, value = "true"))
     public Optional<User> findByUsername(String username);
 
+    @Query("select u.username from User u where u.username in :usernames")
+    public Set<String> findExistingUsernames(@Param("usernames") Collection<String> usernames);
+
+    // Only replaces the hash it was computed from, so a concurrent password change wins
+    @Transactional
+    @Modifying
+    @Query("update User u set u.password = :newHash where u.id = :id and u.password = :oldHash")
+    public int updatePasswordHash(@Param("id") Long id, @Param("oldHash") String oldHash,
+            @Param("newHash") String newHash);
+
 }
@@ -0,0 +1,146 @@
+package com.example.payroll;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.hateoas.MediaTypes;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.example.payroll.departmentService.Department;
+import com.example.payroll.employeeService.Employee;
+import com.example.payroll.security.AuthenticatedUser;
+import com.example.payroll.security.JwtUtil;
+import com.example.payroll.security.User;
+
+import jakarta.persistence.EntityManager;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class ConditionalRequestTests {
+
+    @Autowired
+    private MockMvc mockMvc;
+    @Autowired
+    private EntityManager entityManager;
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+    @Autowired
+    private JwtUtil jwtUtil;
+
+    private String bearer;
+    private Long fromId;
+    private Long toId;
+    private Long employeeId;
+
+    @BeforeEach
+    void seed() {
+        transactionTemplate.executeWithoutResult(status -> {
+            Department from = new Department("Conditional From", "Bree");
+            Department to = new Department("Conditional To", "Bree");
+            entityManager.persist(from);
+            entityManager.persist(to);
+            User user = new User("conditional@example.com", "secret-password", "ROLE_USER");
+            entityManager.persist(user);
+            Employee employee = new Employee("Conditional Employee", "clerk", "conditional@example.com");
+            employee.setDepartment(from);
+            employee.setUser(user);
+            entityManager.persist(employee);
+            fromId = from.getId();
+            toId = to.getId();
+            employeeId = employee.getId();
+        });
+        // One rename leaves the source department one version ahead of the target
+        transactionTemplate.executeWithoutResult(status ->
+                entityManager.find(Department.class, fromId).setName("Conditional Source"));
+        bearer = "Bearer " + jwtUtil.generateToken(new AuthenticatedUser(0L, "admin@example.com", "ROLE_ADMIN"));
+    }
+
+    @AfterEach
+    void cleanUp() {
+        transactionTemplate.executeWithoutResult(status -> {
+            entityManager.createQuery("delete from Employee e where e.id = :id")
+                    .setParameter("id", employeeId).executeUpdate();
+            entityManager.createQuery("delete from Department d where d.id in (:from, :to)")
+                    .setParameter("from", fromId).setParameter("to", toId).executeUpdate();
+            entityManager.createQuery("delete from User u where u.username = 'conditional@example.com'")
+                    .executeUpdate();
+        });
+    }
+
+    @Test
+    void matchingIfNoneMatchIsNotModified() throws Exception {
+        assertNotModified(get("/employees/{id}", employeeId));
+        assertNotModified(employeePage().accept(MediaTypes.HAL_JSON));
+        assertNotModified(get("/departments"));
+        assertNotModified(get("/departments/{id}", toId));
+    }
+
+    @Test
+    void staleIfMatchIsRejected() throws Exception {
+        String etag = etagOf(get("/employees/{id}", employeeId));
+
+        mockMvc.perform(replace(employeeId, "Conditional To").header(HttpHeaders.IF_MATCH, etag))
+                .andExpect(status().isCreated());
+
+        mockMvc.perform(replace(employeeId, "Conditional Source").header(HttpHeaders.IF_MATCH, etag))
+                .andExpect(status().isPreconditionFailed());
+    }
+
+    @Test
+    void ifMatchOnMissingEmployeeIsRejected() throws Exception {
+        mockMvc.perform(replace(employeeId + 1_000_000, "Conditional Source").header(HttpHeaders.IF_MATCH, "\"0-0\""))
+                .andExpect(status().isPreconditionFailed());
+    }
+
+    @Test
+    void moveToDepartmentOneVersionBehindChangesTheListTag() throws Exception {
+        String etag = etagOf(employeePage().accept(MediaTypes.HAL_JSON));
+
+        mockMvc.perform(replace(employeeId, "Conditional To")).andExpect(status().isCreated());
+
+        mockMvc.perform(employeePage().accept(MediaTypes.HAL_JSON)
+                .header(HttpHeaders.AUTHORIZATION, bearer)
+                .header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isOk());
+        mockMvc.perform(get("/employees/{id}", employeeId).header(HttpHeaders.AUTHORIZATION, bearer))
+                .andExpect(jsonPath("$.departmentName").value("Conditional To"));
+    }
+
+    // List tags cover one page, so start it at the seeded employee
+    private MockHttpServletRequestBuilder employeePage() {
+        return get("/employees").param("after", String.valueOf(employeeId - 1));
+    }
+
+    private void assertNotModified(MockHttpServletRequestBuilder request) throws Exception {
+        String etag = etagOf(request);
+        assertThat(etag).isNotNull();
+        mockMvc.perform(request.header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified());
+    }
+
+    private String etagOf(MockHttpServletRequestBuilder request) throws Exception {
+        return mockMvc.perform(request.header(HttpHeaders.AUTHORIZATION, bearer))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+    }
+
+    private MockHttpServletRequestBuilder replace(Long id, String departmentName) {
+        return put("/employees/{id}", id).header(HttpHeaders.AUTHORIZATION, bearer)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"name\":\"Conditional Employee\",\"role\":\"clerk\",\"email\":\"conditional@example.com\","
+                        + "\"departmentName\":\"" + departmentName + "\"}");
+    }
+}
@@ -0,0 +1,137 @@
+package com.example.payroll;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.mail.MailException;
+import org.springframework.mail.MailSendException;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+import org.thymeleaf.TemplateEngine;
+import org.thymeleaf.context.Context;
+
+import com.example.payroll.MailDispatcher.MailStats;
+import com.example.payroll.MailDispatcher.OutboundMail;
+import com.icegreen.greenmail.junit5.GreenMailExtension;
+import com.icegreen.greenmail.util.GreenMailUtil;
+import com.icegreen.greenmail.util.ServerSetupTest;
+
+import jakarta.mail.internet.MimeMessage;
+
+@SpringBootTest(properties = {
+        "spring.mail.host=localhost",
+        "spring.mail.port=3025",
+        "spring.mail.username=",
+        "spring.mail.password=",
+        "spring.mail.properties.mail.smtp.auth=false",
+        "spring.mail.properties.mail.smtp.starttls.enable=false",
+        "payroll.mail.digest.interval=PT1H" })
+class EmailServiceTests {
+
+    @RegisterExtension
+    static GreenMailExtension greenMail = new GreenMailExtension(ServerSetupTest.SMTP);
+
+    @Autowired
+    private EmailService emailService;
+    @Autowired
+    private EmailTemplates emailTemplates;
+    @Autowired
+    private TemplateEngine templateEngine;
+
+    @Test
+    void precompiledWelcomeEmailMatchesTheEngine() {
+        String username = "O'Brien <script>&\"friends\"";
+        Context context = new Context();
+        context.setVariable("username", username);
+
+        assertThat(emailTemplates.welcomeEmail(username))
+                .isEqualTo(templateEngine.process(EmailTemplates.WELCOME_EMAIL, context));
+    }
+
+    @Test
+    void welcomeEmailsAreDeliveredFromTheQueue() throws Exception {
+        for (int i = 0; i < 20; i++) {
+            assertThat(emailService.sendWelcomeEmail("user" + i + "@example.com", "user" + i)).isTrue();
+        }
+
+        assertThat(greenMail.waitForIncomingEmail(10_000, 20)).isTrue();
+        MimeMessage[] received = greenMail.getReceivedMessages();
+        assertThat(received).hasSize(20);
+        assertThat(received[0].getSubject()).isEqualTo("Welcome to Our Platform!");
+    }
+
+    @Test
+    void adminNotificationsAreCoalescedIntoOneDigest() throws Exception {
+        emailService.sendAdminNotification("admin@example.com", "New user registered: a@example.com");
+        emailService.sendAdminNotification("admin@example.com", "New user registered: b@example.com");
+        emailService.sendAdminNotification("admin@example.com", "New user registered: c@example.com");
+
+        emailService.flushAdminDigests();
+
+        assertThat(greenMail.waitForIncomingEmail(10_000, 1)).isTrue();
+        MimeMessage[] received = greenMail.getReceivedMessages();
+        assertThat(received).hasSize(1);
+        assertThat(received[0].getSubject()).isEqualTo("3 New Users Registered");
+        assertThat(GreenMailUtil.getBody(received[0]))
+                .contains("a@example.com", "b@example.com", "c@example.com");
+    }
+
+    @Test
+    void failedSendsAreRetriedWithBackoff() throws Exception {
+        AtomicInteger failuresLeft = new AtomicInteger(2);
+        JavaMailSenderImpl flakySender = new JavaMailSenderImpl() {
+            @Override
+            public void send(MimeMessage... mimeMessages) throws MailException {
+                if (failuresLeft.getAndDecrement() > 0) {
+                    throw new MailSendException("Connection refused");
+                }
+                super.send(mimeMessages);
+            }
+        };
+        flakySender.setHost("localhost");
+        flakySender.setPort(greenMail.getSmtp().getPort());
+
+        MailDispatcher dispatcher = new MailDispatcher(flakySender, 10, 1, 10, 5,
+                Duration.ofMillis(10), Duration.ofMillis(100));
+        try {
+            dispatcher.submit(new OutboundMail("retry@example.com", "Retry", "<p>retry</p>"));
+
+            assertThat(greenMail.waitForIncomingEmail(10_000, 1)).isTrue();
+            awaitTrue(() -> dispatcher.stats().sent() == 1);
+            MailStats stats = dispatcher.stats();
+            assertThat(stats.retried()).isEqualTo(2);
+            assertThat(stats.failed()).isZero();
+            assertThat(stats.batches()).isEqualTo(3);
+        } finally {
+            dispatcher.shutdown();
+        }
+    }
+
+    @Test
+    void backoffDoublesUpToTheLimit() {
+        MailDispatcher dispatcher = new MailDispatcher(new JavaMailSenderImpl(), 1, 1, 1, 10,
+                Duration.ofSeconds(1), Duration.ofSeconds(5));
+        try {
+            assertThat(dispatcher.backoff(1)).isEqualTo(Duration.ofSeconds(1));
+            assertThat(dispatcher.backoff(2)).isEqualTo(Duration.ofSeconds(2));
+            assertThat(dispatcher.backoff(3)).isEqualTo(Duration.ofSeconds(4));
+            assertThat(dispatcher.backoff(4)).isEqualTo(Duration.ofSeconds(5));
+        } finally {
+            dispatcher.shutdown();
+        }
+    }
+
+    private static void awaitTrue(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.nanoTime() + Duration.ofSeconds(10).toNanos();
+        while (!condition.getAsBoolean() && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        assertThat(condition.getAsBoolean()).isTrue();
+    }
+}
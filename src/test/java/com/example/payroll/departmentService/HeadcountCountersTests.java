@@ -0,0 +1,158 @@
+package com.example.payroll.departmentService;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.example.payroll.employeeService.Employee;
+import com.example.payroll.security.AuthenticatedUser;
+import com.example.payroll.security.JwtUtil;
+import com.example.payroll.security.User;
+
+import jakarta.persistence.EntityManager;
+
+@SpringBootTest(properties = "payroll.department-stats.counters=true")
+@AutoConfigureMockMvc
+class HeadcountCountersTests {
+
+    @Autowired
+    private MockMvc mockMvc;
+    @Autowired
+    private EntityManager entityManager;
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+    @Autowired
+    private DepartmentRepository repository;
+    @Autowired
+    private JwtUtil jwtUtil;
+
+    private Long firstId;
+    private Long secondId;
+    private int hired;
+
+    @BeforeEach
+    void seed() {
+        transactionTemplate.executeWithoutResult(status -> {
+            Department first = new Department("Counted First", "Bree");
+            Department second = new Department("Counted Second", "Bree");
+            entityManager.persist(first);
+            entityManager.persist(second);
+            firstId = first.getId();
+            secondId = second.getId();
+        });
+    }
+
+    @AfterEach
+    void cleanUp() {
+        transactionTemplate.executeWithoutResult(status -> {
+            entityManager.createQuery("delete from Employee e where e.department.id in (:first, :second)")
+                    .setParameter("first", firstId).setParameter("second", secondId).executeUpdate();
+            entityManager.createQuery("delete from Department d where d.id in (:first, :second)")
+                    .setParameter("first", firstId).setParameter("second", secondId).executeUpdate();
+            entityManager.createQuery("delete from User u where u.username like 'counted%'").executeUpdate();
+        });
+    }
+
+    @Test
+    void countersFollowCreatesMovesAndDeletes() throws Exception {
+        Long clerk = transactionTemplate.execute(status -> {
+            hire(firstId, "clerk");
+            hire(firstId, "clerk");
+            return hire(secondId, "clerk");
+        });
+        assertCountersMatchEmployees();
+
+        transactionTemplate.executeWithoutResult(status -> {
+            Employee employee = entityManager.find(Employee.class, clerk);
+            employee.setDepartment(entityManager.getReference(Department.class, firstId));
+            employee.setRole("manager");
+        });
+        assertCountersMatchEmployees();
+
+        transactionTemplate.executeWithoutResult(status -> entityManager.remove(
+                entityManager.createQuery("select e from Employee e where e.department.id = :id and e.role = 'clerk'",
+                        Employee.class).setParameter("id", firstId).setMaxResults(1).getSingleResult()));
+        assertCountersMatchEmployees();
+
+        String bearer = "Bearer " + jwtUtil.generateToken(new AuthenticatedUser(0L, "admin@example.com", "ROLE_ADMIN"));
+        mockMvc.perform(get("/departments/stats").header(HttpHeaders.AUTHORIZATION, bearer))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$._embedded.departmentStatsList[?(@.id == " + firstId + ")].headcount")
+                        .value(contains(2)))
+                .andExpect(jsonPath("$._embedded.departmentStatsList[?(@.id == " + firstId + ")].roles.clerk")
+                        .value(contains(1)))
+                .andExpect(jsonPath("$._embedded.departmentStatsList[?(@.id == " + firstId + ")].roles.manager")
+                        .value(contains(1)))
+                .andExpect(jsonPath("$._embedded.departmentStatsList[?(@.id == " + secondId + ")].headcount")
+                        .value(contains(0)));
+    }
+
+    @Test
+    void concurrentFirstEmployeesOfARoleBothCommit() throws Exception {
+        CyclicBarrier flushed = new CyclicBarrier(2);
+        Runnable hireAndCommitTogether = () -> transactionTemplate.executeWithoutResult(status -> {
+            hire(firstId, "auditor");
+            entityManager.flush();
+            try {
+                flushed.await(10, TimeUnit.SECONDS);
+            } catch (Exception e) {
+                throw new IllegalStateException(e);
+            }
+        });
+
+        CompletableFuture.allOf(CompletableFuture.runAsync(hireAndCommitTogether),
+                CompletableFuture.runAsync(hireAndCommitTogether)).get(30, TimeUnit.SECONDS);
+
+        assertThat(counters(repository.findRoleCounts()).get(firstId)).containsEntry("auditor", 2L);
+        assertCountersMatchEmployees();
+    }
+
+    private Long hire(Long departmentId, String role) {
+        User user;
+        synchronized (this) {
+            user = new User("counted" + (++hired) + "-" + System.nanoTime() + "@example.com", "secret-password",
+                    "ROLE_USER");
+        }
+        entityManager.persist(user);
+        Employee employee = new Employee("Counted Employee", role, user.getUsername());
+        employee.setDepartment(entityManager.getReference(Department.class, departmentId));
+        employee.setUser(user);
+        entityManager.persist(employee);
+        return employee.getId();
+    }
+
+    private void assertCountersMatchEmployees() {
+        assertThat(counters(repository.findRoleCounts())).isEqualTo(counters(repository.countRoles()));
+    }
+
+    // Department -> role -> headcount, leaving out empty cells, which the two sources report differently
+    private static Map<Long, Map<String, Long>> counters(List<RoleCount> rows) {
+        Map<Long, Map<String, Long>> counters = new TreeMap<>();
+        for (RoleCount row : rows) {
+            Map<String, Long> roles = counters.computeIfAbsent(row.departmentId(), id -> new TreeMap<>());
+            if (row.headcount() != null && row.headcount() > 0) {
+                roles.put(row.role(), row.headcount());
+            }
+        }
+        return counters;
+    }
+}
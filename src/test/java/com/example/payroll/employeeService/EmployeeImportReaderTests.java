@@ -0,0 +1,88 @@
+package com.example.payroll.employeeService;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.http.MediaType;
+
+import com.example.payroll.employeeService.EmployeeImportReader.ImportRow;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+class EmployeeImportReaderTests {
+
+    @TempDir
+    private Path directory;
+
+    @Test
+    void csvColumnsAreMatchedByHeaderName() throws IOException {
+        List<ImportRow> rows = read(EmployeeImportService.TEXT_CSV,
+                "\uFEFFEmail,Name,Department,Role,Password\n"
+                        + "ann@example.com,Ann,Finance,clerk,\n"
+                        + "\n"
+                        + "\"bob@example.com\",\" Baggins, Bob \",Finance,\"the \"\"boss\"\"\",secret-password\n");
+
+        assertThat(rows).extracting(ImportRow::line).containsExactly(2L, 4L);
+        assertThat(rows).extracting(ImportRow::error).containsOnlyNulls();
+        EmployeeDTO ann = rows.get(0).employee();
+        assertThat(ann.getName()).isEqualTo("Ann");
+        assertThat(ann.getEmail()).isEqualTo("ann@example.com");
+        assertThat(ann.getDepartmentName()).isEqualTo("Finance");
+        assertThat(ann.getRole()).isEqualTo("clerk");
+        assertThat(ann.getPassword()).isNull();
+        EmployeeDTO bob = rows.get(1).employee();
+        assertThat(bob.getName()).isEqualTo("Baggins, Bob");
+        assertThat(bob.getRole()).isEqualTo("the \"boss\"");
+        assertThat(bob.getPassword()).isEqualTo("secret-password");
+    }
+
+    @Test
+    void shortCsvRowsLeaveTheMissingColumnsEmpty() throws IOException {
+        List<ImportRow> rows = read(EmployeeImportService.TEXT_CSV, """
+                name,role,email,departmentName
+                Cid,clerk
+                """);
+
+        assertThat(rows).singleElement().satisfies(row -> {
+            assertThat(row.error()).isNull();
+            assertThat(row.employee().getName()).isEqualTo("Cid");
+            assertThat(row.employee().getEmail()).isNull();
+            assertThat(row.employee().getDepartmentName()).isNull();
+        });
+    }
+
+    @Test
+    void ndjsonRowsAreParsedAndMalformedOnesReported() throws IOException {
+        List<ImportRow> rows = read(MediaType.APPLICATION_NDJSON, """
+                {"name":"Ann","role":"clerk","email":"ann@example.com","departmentName":"Finance","extra":1}
+                {"name":"Bob",
+
+                {"name":"Cid","email":"cid@example.com"}
+                """);
+
+        assertThat(rows).extracting(ImportRow::line).containsExactly(1L, 2L, 4L);
+        assertThat(rows.get(0).employee().getDepartmentName()).isEqualTo("Finance");
+        assertThat(rows.get(1).employee()).isNull();
+        assertThat(rows.get(1).error()).startsWith("Malformed JSON");
+        assertThat(rows.get(2).employee().getEmail()).isEqualTo("cid@example.com");
+    }
+
+    private List<ImportRow> read(MediaType contentType, String content) throws IOException {
+        Path file = Files.writeString(directory.resolve("upload"), content, StandardCharsets.UTF_8);
+        List<ImportRow> rows = new ArrayList<>();
+        try (EmployeeImportReader reader = EmployeeImportReader.open(file, contentType, new ObjectMapper())) {
+            ImportRow row;
+            while ((row = reader.next()) != null) {
+                rows.add(row);
+            }
+        }
+        return rows;
+    }
+}
@@ -0,0 +1,132 @@
+package com.example.payroll.employeeService;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.util.UUID;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.example.payroll.departmentService.Department;
+import com.example.payroll.employeeService.ImportJob.RowError;
+import com.example.payroll.security.AuthenticatedUser;
+import com.example.payroll.security.JwtUtil;
+import com.example.payroll.security.User;
+
+import jakarta.persistence.EntityManager;
+
+@SpringBootTest(properties = {
+        "payroll.import.chunk-size=2",
+        "payroll.import.max-size=1KB" })
+@AutoConfigureMockMvc
+class EmployeeImportTests {
+
+    @Autowired
+    private MockMvc mockMvc;
+    @Autowired
+    private EmployeeImportService importService;
+    @Autowired
+    private EntityManager entityManager;
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+    @Autowired
+    private JwtUtil jwtUtil;
+
+    private String bearer;
+    private Long departmentId;
+
+    @BeforeEach
+    void seed() {
+        transactionTemplate.executeWithoutResult(status -> {
+            Department department = new Department("Imported", "Bree");
+            entityManager.persist(department);
+            departmentId = department.getId();
+            entityManager.persist(new User("imptaken@example.com", "secret-password", "ROLE_USER"));
+        });
+        bearer = "Bearer " + jwtUtil.generateToken(new AuthenticatedUser(0L, "admin@example.com", "ROLE_ADMIN"));
+    }
+
+    @AfterEach
+    void cleanUp() {
+        transactionTemplate.executeWithoutResult(status -> {
+            entityManager.createQuery("delete from Employee e where e.department.id = :id")
+                    .setParameter("id", departmentId).executeUpdate();
+            entityManager.createQuery("delete from Department d where d.id = :id")
+                    .setParameter("id", departmentId).executeUpdate();
+            entityManager.createQuery("delete from User u where u.username like 'imp%@example.com'").executeUpdate();
+        });
+    }
+
+    @Test
+    void chunkedImportReportsEachRejectedRow() throws Exception {
+        String csv = """
+                name,role,email,departmentName
+                Imp Ann,clerk,impann@example.com,Imported
+                Imp Bob,clerk,impbob@example.com,Nowhere
+                ,clerk,impnoname@example.com,Imported
+                Imp Cid,clerk,impcid@example.com,Imported
+                Imp Dup,clerk,impann@example.com,Imported
+                Imp Taken,clerk,imptaken@example.com,Imported
+                Imp Eve,clerk,impeve@example.com,Imported
+                """;
+
+        String location = mockMvc.perform(post("/employees/bulk").header(HttpHeaders.AUTHORIZATION, bearer)
+                .contentType(EmployeeImportService.TEXT_CSV).content(csv))
+                .andExpect(status().isAccepted())
+                .andReturn().getResponse().getHeader(HttpHeaders.LOCATION);
+
+        ImportJob job = awaitFinished(UUID.fromString(location.substring(location.lastIndexOf('/') + 1)));
+        assertThat(job.getStatus()).isEqualTo(ImportJob.Status.COMPLETED);
+        assertThat(job.getImportedRows()).isEqualTo(3);
+        assertThat(job.getFailedRows()).isEqualTo(4);
+        assertThat(job.getErrors()).extracting(RowError::line).containsExactly(3L, 4L, 6L, 7L);
+        assertThat(job.getErrors()).extracting(RowError::message).containsExactly(
+                "Department with Name Nowhere not found.",
+                "name is required",
+                "Username already exists: impann@example.com",
+                "Username already exists: imptaken@example.com");
+        assertThat(entityManager.createQuery("select e.email from Employee e where e.department.id = :id order by e.id",
+                String.class).setParameter("id", departmentId).getResultList())
+                .containsExactly("impann@example.com", "impcid@example.com", "impeve@example.com");
+
+        mockMvc.perform(get(location).header(HttpHeaders.AUTHORIZATION, bearer))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.importedRows").value(3))
+                .andExpect(jsonPath("$.errors.length()").value(4));
+    }
+
+    @Test
+    void uploadOverTheLimitIsRejected() throws Exception {
+        StringBuilder csv = new StringBuilder("name,role,email,departmentName\n");
+        for (int i = 0; csv.length() <= 1024; i++) {
+            csv.append("Imp Row,clerk,improw").append(i).append("@example.com,Imported\n");
+        }
+
+        mockMvc.perform(post("/employees/bulk").header(HttpHeaders.AUTHORIZATION, bearer)
+                .contentType(EmployeeImportService.TEXT_CSV).content(csv.toString()))
+                .andExpect(status().isPayloadTooLarge())
+                .andExpect(jsonPath("$.status").value(413));
+    }
+
+    private ImportJob awaitFinished(UUID id) throws InterruptedException {
+        for (int attempt = 0; attempt < 200; attempt++) {
+            ImportJob job = importService.findJob(id).orElseThrow();
+            if (job.getFinishedAt() != null) {
+                return job;
+            }
+            Thread.sleep(50);
+        }
+        throw new AssertionError("Import " + id + " did not finish");
+    }
+}
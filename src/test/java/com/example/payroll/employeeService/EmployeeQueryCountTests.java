@@ -0,0 +1,96 @@
+package com.example.payroll.employeeService;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.hateoas.CollectionModel;
+import org.springframework.hateoas.EntityModel;
+import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.context.request.ServletWebRequest;
+
+import com.example.payroll.departmentService.Department;
+import com.example.payroll.security.User;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@Transactional
+class EmployeeQueryCountTests {
+
+    private static final int EMPLOYEES = 25;
+
+    @Autowired
+    private EmployeeService employeeService;
+    @Autowired
+    private EntityManager entityManager;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void seed() {
+        Department department = new Department("Finance", "Jericho");
+        entityManager.persist(department);
+        for (int i = 0; i < EMPLOYEES; i++) {
+            User user = new User("counted" + i + "@example.com", "secret-password", "ROLE_USER");
+            entityManager.persist(user);
+            Employee employee = new Employee("Counted " + i, "clerk", "counted" + i + "@example.com");
+            employee.setDepartment(department);
+            employee.setUser(user);
+            entityManager.persist(employee);
+        }
+        entityManager.flush();
+        entityManager.clear();
+
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @Test
+    void findAllIsOneStatementRegardlessOfPageSize() {
+        ResponseEntity<CollectionModel<EntityModel<EmployeeDTO>>> page = employeeService.findAll(null, EMPLOYEES,
+                new ServletWebRequest(new MockHttpServletRequest()));
+
+        // The page's tag comes from the same statement as its rows
+        assertThat(page.getHeaders().getETag()).isNotNull();
+        assertThat(page.getBody().getContent()).hasSize(EMPLOYEES);
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+    }
+
+    @Test
+    void findByEmailIsOneStatement() {
+        assertThat(employeeService.findByEmail("counted3@example.com").getContent().getDepartmentName())
+                .isEqualTo("Finance");
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+    }
+
+    @Test
+    void detachedEmployeeCanBePrintedAndComparedWithoutItsAssociations() {
+        Long id = entityManager.createQuery("select e.id from Employee e where e.email = 'counted3@example.com'",
+                Long.class).getSingleResult();
+        statistics.clear();
+
+        Employee employee = entityManager.find(Employee.class, id);
+        entityManager.clear();
+
+        assertThat(employee.toString()).contains("Counted 3").doesNotContain("Finance");
+        assertThat(employee).isEqualTo(employee).hasSameHashCodeAs(employee);
+        assertThat(statistics.getPrepareStatementCount()).isLessThanOrEqualTo(1);
+    }
+
+    @Test
+    void findByNameIsOneStatement() {
+        assertThat(employeeService.findByName("Counted 7").getContent().getDepartmentName())
+                .isEqualTo("Finance");
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+    }
+}
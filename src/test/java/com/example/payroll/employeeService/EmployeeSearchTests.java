@@ -0,0 +1,141 @@
+package com.example.payroll.employeeService;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.example.payroll.departmentService.Department;
+import com.example.payroll.exceptions.ValidationException;
+import com.example.payroll.security.AuthenticatedUser;
+import com.example.payroll.security.JwtUtil;
+import com.example.payroll.security.User;
+
+import jakarta.persistence.EntityManager;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@Transactional
+class EmployeeSearchTests {
+
+    @Autowired
+    private EmployeeSearch search;
+    @Autowired
+    private EntityManager entityManager;
+    @Autowired
+    private MockMvc mockMvc;
+    @Autowired
+    private JwtUtil jwtUtil;
+
+    private final List<Long> ties = new ArrayList<>();
+    private final List<Long> twins = new ArrayList<>();
+    private Long ann;
+    private Long bob;
+    private Long cid;
+
+    @BeforeEach
+    void seed() {
+        Department beta = department("Srch Beta");
+        // Department names are not unique
+        Department firstTwin = department("Srch Twin");
+        Department secondTwin = department("Srch Twin");
+
+        ann = hire("Srchname Ann", "SrchRole Clerk", "srchann@example.com", beta);
+        bob = hire("Srchname Bob", "SrchRole Manager", "srchbob@example.com", beta);
+        cid = hire("SRCHNAME cid", "srchrole clerk", "SrchCid@example.com", beta);
+        for (int i = 0; i < 5; i++) {
+            Long id = hire("Srchtie Same", "Twin", "srchtie" + i + "@example.com", i < 3 ? firstTwin : secondTwin);
+            ties.add(id);
+            twins.add(id);
+        }
+        entityManager.flush();
+    }
+
+    @Test
+    void eachFieldIsACaseInsensitivePrefix() {
+        assertThat(ids(new EmployeeSearchQuery("sRcHnAmE", null, null, null))).containsExactly(ann, bob, cid);
+        assertThat(ids(new EmployeeSearchQuery(null, "SRCHANN", null, null))).containsExactly(ann);
+        assertThat(ids(new EmployeeSearchQuery(null, "srchcid@", null, null))).containsExactly(cid);
+        assertThat(ids(new EmployeeSearchQuery(null, null, "SRCHROLE C", null))).containsExactly(ann, cid);
+        assertThat(ids(new EmployeeSearchQuery(null, null, null, "srch BE"))).containsExactly(ann, bob, cid);
+    }
+
+    @Test
+    void filtersCombine() {
+        assertThat(ids(new EmployeeSearchQuery("srchname", null, "srchrole m", null))).containsExactly(bob);
+        assertThat(ids(new EmployeeSearchQuery("srchname", "srchc", "srchrole", "srch beta"))).containsExactly(cid);
+        assertThat(ids(new EmployeeSearchQuery("srchname", null, null, "srch twin"))).isEmpty();
+    }
+
+    @Test
+    void pagesWalkRowsThatTieOnTheSortKey() {
+        assertThat(allPages(new EmployeeSearchQuery("srchtie same", null, null, null), 2)).isEqualTo(ties);
+    }
+
+    @Test
+    void departmentSearchCoversDepartmentsSharingAName() {
+        assertThat(allPages(new EmployeeSearchQuery(null, null, null, "SRCH TWIN"), 2)).isEqualTo(twins);
+    }
+
+    @Test
+    void invalidCursorIsRejected() throws Exception {
+        EmployeeSearchQuery query = new EmployeeSearchQuery("srchname", null, null, null);
+        assertThatThrownBy(() -> search.search(query, "not a cursor", 2)).isInstanceOf(ValidationException.class);
+
+        String bearer = "Bearer " + jwtUtil.generateToken(new AuthenticatedUser(0L, "admin@example.com", "ROLE_ADMIN"));
+        String badId = Base64.getUrlEncoder().withoutPadding()
+                .encodeToString("abc:srchname ann".getBytes(StandardCharsets.UTF_8));
+        mockMvc.perform(get("/employees/search").param("name", "srchname").param("cursor", badId)
+                .header(HttpHeaders.AUTHORIZATION, bearer))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/employees/search").param("name", "srchname").param("cursor", "%%%")
+                .header(HttpHeaders.AUTHORIZATION, bearer))
+                .andExpect(status().isBadRequest());
+    }
+
+    private List<Long> ids(EmployeeSearchQuery query) {
+        return search.search(query, null, 100).employees().stream().map(EmployeeDTO::getId).toList();
+    }
+
+    private List<Long> allPages(EmployeeSearchQuery query, int limit) {
+        List<Long> ids = new ArrayList<>();
+        String cursor = null;
+        do {
+            EmployeeSearch.Page page = search.search(query, cursor, limit);
+            assertThat(page.employees()).hasSizeLessThanOrEqualTo(limit);
+            page.employees().forEach(employee -> ids.add(employee.getId()));
+            cursor = page.next();
+        } while (cursor != null);
+        return ids;
+    }
+
+    private Department department(String name) {
+        Department department = new Department(name, "Bree");
+        entityManager.persist(department);
+        return department;
+    }
+
+    private Long hire(String name, String role, String email, Department department) {
+        User user = new User(email.toLowerCase(), "secret-password", "ROLE_USER");
+        entityManager.persist(user);
+        Employee employee = new Employee(name, role, email);
+        employee.setDepartment(department);
+        employee.setUser(user);
+        entityManager.persist(employee);
+        return employee.getId();
+    }
+}
@@ -0,0 +1,145 @@
+package com.example.payroll.employeeService;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.example.payroll.CacheConfig;
+import com.example.payroll.departmentService.Department;
+import com.example.payroll.departmentService.DepartmentRepository;
+import com.example.payroll.security.AuthenticatedUser;
+import com.example.payroll.security.JwtUtil;
+import com.example.payroll.security.User;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@AutoConfigureMockMvc
+class EmployeeSecondLevelCacheTests {
+
+    @Autowired
+    private MockMvc mockMvc;
+    @Autowired
+    private EntityManager entityManager;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+    @Autowired
+    private DepartmentRepository departmentRepository;
+    @Autowired
+    private JwtUtil jwtUtil;
+
+    private Statistics statistics;
+    private String bearer;
+    private Long departmentId;
+    private Long employeeId;
+
+    @BeforeEach
+    void seed() {
+        transactionTemplate.executeWithoutResult(status -> {
+            Department department = new Department("Cached", "Bree");
+            entityManager.persist(department);
+            User user = new User("cached@example.com", "secret-password", "ROLE_USER");
+            entityManager.persist(user);
+            Employee employee = new Employee("Cached Employee", "clerk", "cached@example.com");
+            employee.setDepartment(department);
+            employee.setUser(user);
+            entityManager.persist(employee);
+            departmentId = department.getId();
+            employeeId = employee.getId();
+        });
+        bearer = "Bearer " + jwtUtil.generateToken(new AuthenticatedUser(0L, "admin@example.com", "ROLE_ADMIN"));
+
+        // Start cold, so the first read has to go to the database
+        entityManagerFactory.getCache().evictAll();
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @AfterEach
+    void cleanUp() {
+        transactionTemplate.executeWithoutResult(status -> {
+            entityManager.createQuery("delete from Employee e where e.department.id = :id")
+                    .setParameter("id", departmentId).executeUpdate();
+            entityManager.createQuery("delete from Department d where d.id = :id or d.name = 'Uncached'")
+                    .setParameter("id", departmentId).executeUpdate();
+            entityManager.createQuery("delete from User u where u.username = 'cached@example.com'").executeUpdate();
+        });
+    }
+
+    @Test
+    void repeatedReadsHitTheDatabaseOnce() throws Exception {
+        for (int i = 0; i < 5; i++) {
+            mockMvc.perform(get("/employees/{id}", employeeId).header(HttpHeaders.AUTHORIZATION, bearer))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.departmentName").value("Cached"));
+        }
+
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+        assertThat(statistics.getDomainDataRegionStatistics(CacheConfig.EMPLOYEE_REGION).getHitCount()).isEqualTo(4);
+    }
+
+    @Test
+    void departmentNameLookupsAreCachedMissesIncluded() throws Exception {
+        for (int i = 0; i < 3; i++) {
+            assertThat(departmentRepository.findByName("Cached")).isPresent();
+            assertThat(departmentRepository.findByName("Uncached")).isEmpty();
+        }
+        // One query per name; later lookups come from the query and entity caches
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(2);
+
+        mockMvc.perform(post("/departments").header(HttpHeaders.AUTHORIZATION, bearer)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"name\":\"Uncached\",\"location\":\"Bree\"}"))
+                .andExpect(status().isCreated());
+
+        assertThat(departmentRepository.findByName("Uncached")).isPresent();
+    }
+
+    @Test
+    void replacementIsVisibleToTheNextRead() throws Exception {
+        mockMvc.perform(get("/employees/{id}", employeeId).header(HttpHeaders.AUTHORIZATION, bearer))
+                .andExpect(jsonPath("$.name").value("Cached Employee"));
+
+        mockMvc.perform(put("/employees/{id}", employeeId).header(HttpHeaders.AUTHORIZATION, bearer)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"name\":\"Renamed\",\"role\":\"clerk\",\"email\":\"cached@example.com\","
+                        + "\"departmentName\":\"Cached\"}"))
+                .andExpect(status().isCreated());
+
+        mockMvc.perform(get("/employees/{id}", employeeId).header(HttpHeaders.AUTHORIZATION, bearer))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.name").value("Renamed"));
+    }
+
+    @Test
+    void deletedEmployeeIsNotServedFromTheCache() throws Exception {
+        mockMvc.perform(get("/employees/{id}", employeeId).header(HttpHeaders.AUTHORIZATION, bearer))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(delete("/employees/{id}", employeeId).header(HttpHeaders.AUTHORIZATION, bearer))
+                .andExpect(status().isNoContent());
+
+        mockMvc.perform(get("/employees/{id}", employeeId).header(HttpHeaders.AUTHORIZATION, bearer))
+                .andExpect(status().isNotFound());
+    }
+}
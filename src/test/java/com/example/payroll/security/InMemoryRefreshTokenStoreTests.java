@@ -0,0 +1,84 @@
+package com.example.payroll.security;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.QueryTimeoutException;
+
+class InMemoryRefreshTokenStoreTests {
+
+    private final Instant now = Instant.parse("2026-01-01T00:00:00Z");
+    private final JpaRefreshTokenStore persistentStore = mock(JpaRefreshTokenStore.class);
+    private final UserDetailsCache userDetailsCache = mock(UserDetailsCache.class);
+    private InMemoryRefreshTokenStore store;
+
+    @BeforeEach
+    void setUp() {
+        when(persistentStore.findAllValid(any())).thenReturn(List.of());
+        when(userDetailsCache.get("ann@example.com"))
+                .thenReturn(new AuthenticatedUser(1L, "ann@example.com", "ROLE_USER"));
+        store = new InMemoryRefreshTokenStore(persistentStore, userDetailsCache);
+    }
+
+    @Test
+    void savedTokenVerifiesUntilItExpires() {
+        Instant expiry = now.plus(Duration.ofDays(7));
+        store.save(token("a", expiry));
+
+        assertThat(store.findOwner(hash("a"), now)).map(AuthenticatedUser::getUsername).contains("ann@example.com");
+        assertThat(store.findOwner(hash("b"), now)).isEmpty();
+        assertThat(store.findOwner(hash("a"), expiry.minusMillis(1))).isPresent();
+        assertThat(store.findOwner(hash("a"), expiry)).isEmpty();
+    }
+
+    @Test
+    void purgeDropsExpiredTokensAndPurgesTheTable() {
+        Instant expiry = now.plus(Duration.ofDays(7));
+        store.save(token("a", expiry));
+        when(persistentStore.purgeExpired(expiry)).thenReturn(1);
+
+        assertThat(store.purgeExpired(expiry)).isEqualTo(1);
+        assertThat(store.findOwner(hash("a"), now)).isEmpty();
+    }
+
+    @Test
+    void rotationInvalidatesThePreviousToken() {
+        store.save(token("a", now.plus(Duration.ofDays(7))));
+        store.save(token("b", now.plus(Duration.ofDays(7))));
+
+        assertThat(store.findOwner(hash("a"), now)).isEmpty();
+        assertThat(store.findOwner(hash("b"), now)).isPresent();
+    }
+
+    @Test
+    void writeThatFailedIsFlushedOnShutdown() throws InterruptedException {
+        StoredRefreshToken token = token("a", now.plus(Duration.ofDays(7)));
+        doThrow(new QueryTimeoutException("database unavailable")).doNothing().when(persistentStore).save(token);
+
+        store.save(token);
+        verify(persistentStore, timeout(5000)).save(token);
+
+        store.shutdown();
+        verify(persistentStore, times(2)).save(token);
+    }
+
+    private static StoredRefreshToken token(String seed, Instant expiry) {
+        return new StoredRefreshToken(hash(seed), 1L, "ann@example.com", expiry);
+    }
+
+    private static String hash(String seed) {
+        return seed.repeat(64);
+    }
+}
@@ -0,0 +1,54 @@
+package com.example.payroll.security;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+@SpringBootTest
+class JpaRefreshTokenStoreTests {
+
+    @Autowired
+    private JpaRefreshTokenStore store;
+    @Autowired
+    private RefreshTokenRepository refreshTokenRepository;
+    @Autowired
+    private UserRepository userRepository;
+
+    private User user;
+
+    @BeforeEach
+    void seed() {
+        user = userRepository.save(new User("stored@example.com", "secret-password", "ROLE_USER"));
+    }
+
+    @AfterEach
+    void cleanUp() {
+        refreshTokenRepository.deleteAll(refreshTokenRepository.findAll().stream()
+                .filter(token -> token.getUser().getId().equals(user.getId())).toList());
+        userRepository.delete(user);
+    }
+
+    @Test
+    void firstSaveInsertsAndLaterSavesReplaceTheUsersToken() {
+        Instant now = Instant.now().truncatedTo(ChronoUnit.MILLIS);
+        Instant expiry = now.plus(1, ChronoUnit.DAYS);
+
+        store.save(new StoredRefreshToken("a".repeat(64), user.getId(), user.getUsername(), expiry));
+        assertThat(store.findOwner("a".repeat(64), now)).map(AuthenticatedUser::getUsername)
+                .contains("stored@example.com");
+
+        store.save(new StoredRefreshToken("b".repeat(64), user.getId(), user.getUsername(), expiry));
+        assertThat(store.findOwner("a".repeat(64), now)).isEmpty();
+        assertThat(store.findOwner("b".repeat(64), now)).isPresent();
+        assertThat(store.findOwner("b".repeat(64), expiry)).isEmpty();
+        assertThat(refreshTokenRepository.findAll())
+                .filteredOn(token -> token.getUser().getId().equals(user.getId())).hasSize(1);
+    }
+}
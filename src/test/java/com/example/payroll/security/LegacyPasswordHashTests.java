@@ -0,0 +1,72 @@
+package com.example.payroll.security;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import jakarta.persistence.EntityManager;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class LegacyPasswordHashTests {
+
+    @Autowired
+    private MockMvc mockMvc;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+    @Autowired
+    private EntityManager entityManager;
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @AfterEach
+    void cleanUp() {
+        transactionTemplate.executeWithoutResult(status -> {
+            entityManager.createQuery("delete from RefreshToken t where t.user.username = 'legacy@example.com'")
+                    .executeUpdate();
+            entityManager.createQuery("delete from User u where u.username = 'legacy@example.com'").executeUpdate();
+        });
+    }
+
+    @Test
+    void unprefixedHashStillMatchesAndIsRehashedAfterLogin() throws Exception {
+        // Stored before hashes carried an encoder id, and at a different cost
+        String legacyHash = new BCryptPasswordEncoder(5).encode("legacy-password");
+        userRepository.save(new User("legacy@example.com", legacyHash, "ROLE_USER"));
+
+        mockMvc.perform(post("/auth/login").contentType(MediaType.APPLICATION_JSON)
+                .content("{\"username\":\"legacy@example.com\",\"password\":\"legacy-password\"}"))
+                .andExpect(status().isOk());
+
+        // "{bcrypt}$2a$NN$": the prefix and cost the encoder currently writes
+        String expectedPrefix = passwordEncoder.encode("probe").substring(0, 15);
+        String rehashed = awaitRehash(legacyHash);
+        assertThat(rehashed).startsWith(expectedPrefix);
+        assertThat(passwordEncoder.matches("legacy-password", rehashed)).isTrue();
+        assertThat(passwordEncoder.upgradeEncoding(rehashed)).isFalse();
+    }
+
+    private String awaitRehash(String legacyHash) throws InterruptedException {
+        for (int attempt = 0; attempt < 100; attempt++) {
+            String hash = userRepository.findByUsername("legacy@example.com").orElseThrow().getPassword();
+            if (!hash.equals(legacyHash)) {
+                return hash;
+            }
+            Thread.sleep(50);
+        }
+        throw new AssertionError("Password hash was not upgraded");
+    }
+}
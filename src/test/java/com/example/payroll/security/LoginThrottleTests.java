@@ -0,0 +1,75 @@
+package com.example.payroll.security;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+
+import com.example.payroll.exceptions.TooManyRequestsException;
+
+class LoginThrottleTests {
+
+    private final LoginThrottle throttle = new LoginThrottle(new CaffeineCacheManager(),
+            3, Duration.ofMinutes(1), 2, Duration.ofMinutes(15), 100, 1, Duration.ofMillis(50));
+
+    @Test
+    void attemptsAreLimitedPerClientIp() {
+        for (int i = 0; i < 3; i++) {
+            throttle.checkAttempt("user" + i + "@example.com", "10.0.0.1");
+        }
+
+        assertThatThrownBy(() -> throttle.checkAttempt("other@example.com", "10.0.0.1"))
+                .isInstanceOfSatisfying(TooManyRequestsException.class, e -> assertThat(e.getRetryAfter())
+                        .isPositive().isLessThanOrEqualTo(Duration.ofSeconds(20)));
+        throttle.checkAttempt("other@example.com", "10.0.0.2");
+        assertThat(throttle.stats().throttledByIp()).isEqualTo(1);
+    }
+
+    @Test
+    void failuresAreLimitedPerUsernameFromAnyIp() {
+        throttle.checkAttempt("ann@example.com", "10.0.0.1");
+        throttle.recordFailure("ann@example.com");
+        throttle.checkAttempt("ann@example.com", "10.0.0.1");
+        throttle.recordFailure("ANN@example.com");
+
+        assertThatThrownBy(() -> throttle.checkAttempt("Ann@Example.com", "10.0.0.2"))
+                .isInstanceOfSatisfying(TooManyRequestsException.class, e -> assertThat(e.getRetryAfter())
+                        .isPositive().isLessThanOrEqualTo(Duration.ofMinutes(15).dividedBy(2)));
+        throttle.checkAttempt("bob@example.com", "10.0.0.2");
+        assertThat(throttle.stats().throttledByUsername()).isEqualTo(1);
+    }
+
+    @Test
+    void verificationIsShedWithoutRunningWhenNoPermitIsFree() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        CompletableFuture<Boolean> holder = CompletableFuture.supplyAsync(() -> throttle.verify(() -> {
+            started.countDown();
+            try {
+                return release.await(10, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                throw new IllegalStateException(e);
+            }
+        }));
+        assertThat(started.await(10, TimeUnit.SECONDS)).isTrue();
+
+        AtomicBoolean ran = new AtomicBoolean();
+        assertThatThrownBy(() -> throttle.verify(() -> ran.getAndSet(true)))
+                .isInstanceOfSatisfying(TooManyRequestsException.class,
+                        e -> assertThat(e.getRetryAfter()).isEqualTo(Duration.ofSeconds(1)));
+        assertThat(ran).isFalse();
+        assertThat(throttle.stats().shedByConcurrency()).isEqualTo(1);
+        assertThat(throttle.stats().verificationsInProgress()).isEqualTo(1);
+
+        release.countDown();
+        assertThat(holder.get(10, TimeUnit.SECONDS)).isTrue();
+        assertThat(throttle.verify(() -> true)).isTrue();
+    }
+}
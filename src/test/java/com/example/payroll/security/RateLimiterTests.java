@@ -0,0 +1,61 @@
+package com.example.payroll.security;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.Duration;
+
+import org.junit.jupiter.api.Test;
+
+class RateLimiterTests {
+
+    private final RateLimiter limiter = new RateLimiter(3, Duration.ofSeconds(30), 100);
+
+    @Test
+    void fullBucketAdmitsABurstOfCapacity() {
+        for (int i = 0; i < 3; i++) {
+            assertThat(limiter.tryAcquire("key")).isZero();
+        }
+        assertThat(limiter.tryAcquire("key")).isPositive();
+        assertThat(limiter.tryAcquire("other")).isZero();
+    }
+
+    @Test
+    void waitIsAtMostOneRefillInterval() {
+        drain(limiter, "key");
+
+        Duration wait = limiter.tryAcquire("key");
+        assertThat(wait).isPositive().isLessThanOrEqualTo(Duration.ofSeconds(10));
+        assertThat(limiter.peek("key")).isPositive().isLessThanOrEqualTo(wait);
+    }
+
+    @Test
+    void tokensRefillOverThePeriod() throws InterruptedException {
+        RateLimiter fast = new RateLimiter(3, Duration.ofMillis(300), 100);
+        drain(fast, "key");
+
+        Thread.sleep(fast.tryAcquire("key").toMillis() + 1);
+        assertThat(fast.tryAcquire("key")).isZero();
+
+        Thread.sleep(300);
+        for (int i = 0; i < 3; i++) {
+            assertThat(fast.tryAcquire("key")).isZero();
+        }
+    }
+
+    @Test
+    void peekDoesNotTakeATokenOrCreateABucket() {
+        assertThat(limiter.peek("key")).isZero();
+        assertThat(limiter.buckets().estimatedSize()).isZero();
+
+        limiter.tryAcquire("key");
+        limiter.tryAcquire("key");
+        assertThat(limiter.peek("key")).isZero();
+        assertThat(limiter.tryAcquire("key")).isZero();
+    }
+
+    private static void drain(RateLimiter limiter, String key) {
+        while (limiter.tryAcquire(key).isZero()) {
+            // take every token in the bucket
+        }
+    }
+}
@@ -0,0 +1,88 @@
+package com.example.payroll.security;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.bean.override.mockito.MockitoSpyBean;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.ResultActions;
+
+import com.icegreen.greenmail.junit5.GreenMailExtension;
+import com.icegreen.greenmail.util.ServerSetupTest;
+
+@SpringBootTest(properties = {
+        "spring.mail.host=localhost",
+        "spring.mail.port=3025",
+        "spring.mail.username=",
+        "spring.mail.password=",
+        "spring.mail.properties.mail.smtp.auth=false",
+        "spring.mail.properties.mail.smtp.starttls.enable=false",
+        "payroll.mail.digest.interval=PT1H" })
+@AutoConfigureMockMvc
+class RegistrationTests {
+
+    @RegisterExtension
+    static GreenMailExtension greenMail = new GreenMailExtension(ServerSetupTest.SMTP);
+
+    @Autowired
+    private MockMvc mockMvc;
+    @Autowired
+    private UserRepository userRepository;
+    @MockitoSpyBean
+    private PasswordHashingService passwordHashingService;
+
+    @AfterEach
+    void cleanUp() {
+        userRepository.findByUsername("registered@example.com").ifPresent(userRepository::delete);
+    }
+
+    @Test
+    void registrationSavesTheHashedPasswordAndSendsTheWelcomeEmail() throws Exception {
+        register().andExpect(status().isOk());
+
+        assertThat(userRepository.findByUsername("registered@example.com"))
+                .hasValueSatisfying(user -> assertThat(user.getPassword()).startsWith("{bcrypt}"));
+        assertThat(greenMail.waitForIncomingEmail(5000, 1)).isTrue();
+        assertThat(greenMail.getReceivedMessages()[0].getAllRecipients()[0].toString())
+                .isEqualTo("registered@example.com");
+    }
+
+    @Test
+    void registrationThatLosesTheRaceIsReportedAsADuplicate() throws Exception {
+        // The competing registration commits after this one has passed the username check
+        doAnswer(invocation -> {
+            userRepository.save(new User("registered@example.com", "{noop}competitor", "ROLE_USER"));
+            return invocation.callRealMethod();
+        }).when(passwordHashingService).encode(any());
+
+        register()
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value("Username already exists"));
+        assertThat(userRepository.findByUsername("registered@example.com"))
+                .hasValueSatisfying(user -> assertThat(user.getPassword()).isEqualTo("{noop}competitor"));
+    }
+
+    private ResultActions register() throws Exception {
+        MvcResult started = mockMvc.perform(post("/auth/register")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"username\":\"registered@example.com\",\"password\":\"secret-password\","
+                        + "\"role\":\"ROLE_USER\"}"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        return mockMvc.perform(asyncDispatch(started));
+    }
+}
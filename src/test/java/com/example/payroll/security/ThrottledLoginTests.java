@@ -0,0 +1,59 @@
+package com.example.payroll.security;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.clearInvocations;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.context.bean.override.mockito.MockitoSpyBean;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultActions;
+
+@SpringBootTest(properties = "security.login.throttle.username.capacity=2")
+@AutoConfigureMockMvc
+class ThrottledLoginTests {
+
+    @Autowired
+    private MockMvc mockMvc;
+    @MockitoSpyBean
+    private PasswordEncoder passwordEncoder;
+
+    @Test
+    void throttledLoginIsRejectedBeforeAnyPasswordCheck() throws Exception {
+        clearInvocations(passwordEncoder);
+        login("10.1.0.1").andExpect(status().isUnauthorized());
+        login("10.1.0.2").andExpect(status().isUnauthorized());
+        verify(passwordEncoder, times(2)).matches(any(), anyString());
+
+        clearInvocations(passwordEncoder);
+        login("10.1.0.3")
+                .andExpect(status().isTooManyRequests())
+                .andExpect(header().exists(HttpHeaders.RETRY_AFTER))
+                .andExpect(jsonPath("$.status").value(429));
+        verify(passwordEncoder, never()).matches(any(), anyString());
+        verify(passwordEncoder, never()).encode(any());
+    }
+
+    private ResultActions login(String clientIp) throws Exception {
+        return mockMvc.perform(post("/auth/login")
+                .with(request -> {
+                    request.setRemoteAddr(clientIp);
+                    return request;
+                })
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"username\":\"throttled@example.com\",\"password\":\"wrong-password\"}"));
+    }
+}